@@ -7,6 +7,12 @@ plugins {
 group = "ru.juanoff"
 version = "1.0-SNAPSHOT"
 
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+}
+
 repositories {
     mavenCentral()
 }
@@ -40,6 +46,7 @@ dependencies {
     testImplementation("org.springframework.boot:spring-boot-testcontainers:3.4.0")
     testImplementation("org.testcontainers:junit-jupiter:1.20.4")
     testImplementation("org.testcontainers:postgresql:1.20.4")
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
 
     implementation("io.jsonwebtoken:jjwt-api:0.11.5")
     runtimeOnly("io.jsonwebtoken:jjwt-impl:0.11.5")
@@ -48,8 +55,10 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-mail:3.4.2")
 
     implementation("org.springframework.boot:spring-boot-starter-websocket:3.4.0")
+    implementation("io.projectreactor.netty:reactor-netty")
     implementation("com.github.ben-manes.caffeine:caffeine:3.1.8")
     implementation("org.springframework.boot:spring-boot-starter-cache")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
 
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
     implementation("com.squareup.okhttp3:okhttp:4.12.0")
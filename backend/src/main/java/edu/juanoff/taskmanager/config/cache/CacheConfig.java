@@ -1,6 +1,7 @@
 package edu.juanoff.taskmanager.config.cache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.juanoff.taskmanager.config.web.BrokerMode;
 import edu.juanoff.taskmanager.util.CacheNames;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,36 +10,60 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.time.Duration;
-import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @EnableCaching
 @Slf4j
 public class CacheConfig {
 
+    private static final List<String> CACHE_NAMES = List.of(
+            CacheNames.NOTIFICATION_SETTINGS,
+            CacheNames.TASK_RECIPIENTS,
+            CacheNames.INCOMPLETE_ACHIEVEMENTS
+    );
+
+
     @Value("${cache.caffeine.expire-after-write:10m}")
     private String expireAfterWrite;
 
     @Value("${cache.caffeine.maximum-size:1000}")
     private long maximumSize;
 
+    //! Снимки прав поддерживаются событиями (AccessSnapshotService), поэтому TTL у них длинный
+    @Value("${cache.caffeine.access-snapshot.expire-after-write:24h}")
+    private String accessSnapshotExpireAfterWrite;
+
+    //! События приходят только от своего узла: при нескольких инстансах (relay) отзыв доступа
+    //! на другом узле виден здесь не позже этого TTL
+    @Value("${cache.caffeine.access-snapshot.relay-expire-after-write:30s}")
+    private String accessSnapshotRelayExpireAfterWrite;
+
+    @Value("${websocket.broker.mode:simple}")
+    private BrokerMode brokerMode;
+
+    @Value("${cache.caffeine.access-snapshot.maximum-size:10000}")
+    private long accessSnapshotMaximumSize;
+
     @Bean
     public CacheManager cacheManager() {
         try {
             CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-            cacheManager.setCacheNames(Arrays.asList(CacheNames.TASK_OWNERSHIP, CacheNames.TASK_ACCESS));
+            cacheManager.setCacheNames(CACHE_NAMES);
+            cacheManager.setCaffeine(caffeine(expireAfterWrite, maximumSize));
 
-            Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
-                    .expireAfterWrite(Duration.parse("PT" + expireAfterWrite.toUpperCase()))
-                    .maximumSize(maximumSize)
-                    .recordStats();
+            String snapshotExpireAfterWrite = brokerMode == BrokerMode.RELAY
+                    ? accessSnapshotRelayExpireAfterWrite
+                    : accessSnapshotExpireAfterWrite;
+            cacheManager.registerCustomCache(CacheNames.ACCESS_SNAPSHOT,
+                    caffeine(snapshotExpireAfterWrite, accessSnapshotMaximumSize).build());
 
-            cacheManager.setCaffeine(caffeine);
             log.info("CacheManager configured with names: {}, expireAfterWrite: {}, maximumSize: {}",
-                    Arrays.asList(CacheNames.TASK_OWNERSHIP, CacheNames.TASK_ACCESS), expireAfterWrite, maximumSize);
+                    CACHE_NAMES, expireAfterWrite, maximumSize);
+            log.info("Access snapshot cache configured with expireAfterWrite: {}, maximumSize: {}, broker mode: {}",
+                    snapshotExpireAfterWrite, accessSnapshotMaximumSize, brokerMode);
 
             return cacheManager;
         } catch (Exception e) {
@@ -46,4 +71,12 @@ public class CacheConfig {
             throw new IllegalStateException("Cache configuration failed", e);
         }
     }
+
+    //! recordStats публикует hit/miss в /actuator/metrics/cache.gets
+    private static Caffeine<Object, Object> caffeine(String expireAfterWrite, long maximumSize) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(Duration.parse("PT" + expireAfterWrite.toUpperCase()))
+                .maximumSize(maximumSize)
+                .recordStats();
+    }
 }
@@ -35,6 +35,10 @@ public class GoogleConfig {
     @Value("${google.calendar.scope}")
     private String scope;
 
+    //! Для тестов можно указать локальный stub-сервер Calendar API
+    @Value("${google.calendar.root-url:https://www.googleapis.com/}")
+    private String calendarRootUrl;
+
     @Value("${encryption.key}")
     private String encryptionKey;
 
@@ -72,6 +76,7 @@ public class GoogleConfig {
                 (HttpRequest request) -> {
                 })
                 .setApplicationName("TaskManager")
+                .setRootUrl(calendarRootUrl)
                 .build();
     }
 
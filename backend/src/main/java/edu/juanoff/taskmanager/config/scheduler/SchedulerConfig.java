@@ -11,7 +11,6 @@ import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
@@ -30,14 +29,6 @@ public class SchedulerConfig implements AsyncConfigurer {
     @Value("${notification.executor.thread-name-prefix:Notification-}")
     private String threadNamePrefix;
 
-    @Value("${notification.executor.max-concurrent-users:20}")
-    private int maxConcurrentUsers;
-
-    @Bean
-    public Semaphore notificationConcurrencySemaphore() {
-        return new Semaphore(maxConcurrentUsers);
-    }
-
     @Bean(AsyncExecutorNames.NOTIFICATION)
     public Executor taskExecutor() {
         if (corePoolSize <= 0) {
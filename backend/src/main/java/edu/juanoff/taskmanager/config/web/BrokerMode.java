@@ -0,0 +1,8 @@
+package edu.juanoff.taskmanager.config.web;
+
+public enum BrokerMode {
+    //! Встроенный in-process брокер: один инстанс, локальная разработка и тесты
+    SIMPLE,
+    //! Ретрансляция во внешний STOMP-брокер (RabbitMQ, ActiveMQ) для нескольких инстансов
+    RELAY
+}
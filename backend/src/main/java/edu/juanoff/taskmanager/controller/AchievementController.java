@@ -1,7 +1,11 @@
 package edu.juanoff.taskmanager.controller;
 
+import edu.juanoff.taskmanager.dto.achievement.AchievementBackfillProgressDTO;
+import edu.juanoff.taskmanager.dto.achievement.AchievementRecomputeProgressDTO;
 import edu.juanoff.taskmanager.dto.achievement.AchievementRequestDTO;
 import edu.juanoff.taskmanager.dto.achievement.AchievementResponseDTO;
+import edu.juanoff.taskmanager.service.AchievementBackfillService;
+import edu.juanoff.taskmanager.service.AchievementRecomputeService;
 import edu.juanoff.taskmanager.service.AchievementService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +22,8 @@ import java.util.List;
 public class AchievementController {
 
     private final AchievementService achievementService;
+    private final AchievementBackfillService achievementBackfillService;
+    private final AchievementRecomputeService achievementRecomputeService;
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
@@ -34,4 +40,28 @@ public class AchievementController {
         AchievementResponseDTO responseDTO = achievementService.createAchievement(requestDTO);
         return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
     }
+
+    @PostMapping("/{achievementId}/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AchievementBackfillProgressDTO> startBackfill(@PathVariable Long achievementId) {
+        return new ResponseEntity<>(achievementBackfillService.startBackfill(achievementId), HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AchievementRecomputeProgressDTO> startRecompute() {
+        return new ResponseEntity<>(achievementRecomputeService.startRecompute(), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AchievementRecomputeProgressDTO> getRecomputeProgress() {
+        return ResponseEntity.ok(achievementRecomputeService.getProgress());
+    }
+
+    @GetMapping("/{achievementId}/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AchievementBackfillProgressDTO> getBackfillProgress(@PathVariable Long achievementId) {
+        return ResponseEntity.ok(achievementBackfillService.getProgress(achievementId));
+    }
 }
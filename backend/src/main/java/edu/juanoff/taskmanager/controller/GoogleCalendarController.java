@@ -1,9 +1,11 @@
 package edu.juanoff.taskmanager.controller;
 
+import edu.juanoff.taskmanager.dto.google.GoogleSyncJobDTO;
 import edu.juanoff.taskmanager.repository.GoogleTokenRepository;
 import edu.juanoff.taskmanager.security.UserDetailsImpl;
 import edu.juanoff.taskmanager.service.google.GoogleCalendarException;
 import edu.juanoff.taskmanager.service.google.GoogleCalendarService;
+import edu.juanoff.taskmanager.service.google.GoogleSyncJobService;
 import edu.juanoff.taskmanager.service.google.GoogleTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +29,7 @@ public class GoogleCalendarController {
 
     private final GoogleTokenService tokenService;
     private final GoogleCalendarService calendarService;
+    private final GoogleSyncJobService syncJobService;
     private final GoogleTokenRepository tokenRepository;
 
     @GetMapping("/auth")
@@ -63,33 +66,29 @@ public class GoogleCalendarController {
 
     @PostMapping("/sync")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<String> syncCalendar(@AuthenticationPrincipal UserDetailsImpl userDetails) {
+    public ResponseEntity<?> syncCalendar(@AuthenticationPrincipal UserDetailsImpl userDetails) {
         try {
-            calendarService.resetCancelSync();
-            calendarService.syncTasks(userDetails.id());
-            return ResponseEntity.ok("Sync completed successfully");
+            return new ResponseEntity<>(
+                    syncJobService.startSync(userDetails.id(), userDetails.getUsername()),
+                    HttpStatus.ACCEPTED
+            );
         } catch (GoogleCalendarException e) {
-            log.error("Sync failed for user {}: {}", userDetails.id(), e.getMessage());
-            if (e.getMessage().contains("Please reconnect Google Calendar")) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body("Sync failed: Please reconnect Google Calendar.");
-            }
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            log.error("Failed to start sync for user {}: {}", userDetails.id(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                     .body("Sync failed: " + e.getMessage());
         }
     }
 
+    @GetMapping("/sync")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<GoogleSyncJobDTO> getSyncJob(@AuthenticationPrincipal UserDetailsImpl userDetails) {
+        return ResponseEntity.ok(syncJobService.getJob(userDetails.id()));
+    }
+
     @PostMapping("/cancel")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<String> cancelSync(@AuthenticationPrincipal UserDetailsImpl userDetails) {
-        try {
-            calendarService.cancelSync();
-            return ResponseEntity.ok("Sync cancellation requested");
-        } catch (Exception e) {
-            log.error("Failed to cancel sync for user {}: {}", userDetails.id(), e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Failed to cancel sync: " + e.getMessage());
-        }
+    public ResponseEntity<GoogleSyncJobDTO> cancelSync(@AuthenticationPrincipal UserDetailsImpl userDetails) {
+        return ResponseEntity.ok(syncJobService.cancelSync(userDetails.id()));
     }
 
     @PostMapping("/undo")
@@ -1,13 +1,19 @@
 package edu.juanoff.taskmanager.controller;
 
+import edu.juanoff.taskmanager.dto.notification.NotificationCountersDTO;
+import edu.juanoff.taskmanager.dto.notification.NotificationCursorDTO;
+import edu.juanoff.taskmanager.dto.notification.NotificationPageResponseDTO;
 import edu.juanoff.taskmanager.dto.notification.NotificationResponseDTO;
+import edu.juanoff.taskmanager.entity.Notification;
 import edu.juanoff.taskmanager.security.UserDetailsImpl;
 import edu.juanoff.taskmanager.service.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -26,15 +32,64 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<NotificationPageResponseDTO> getNotificationsPage(
+            @RequestParam(defaultValue = "true") boolean onlyOpen,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeCreatedAt,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        NotificationCursorDTO cursor = new NotificationCursorDTO(beforeCreatedAt, beforeId);
+        return ResponseEntity.ok(notificationService.getNotificationsPage(userDetails.id(), onlyOpen, cursor, limit));
+    }
+
+    @GetMapping("/counters")
+    public ResponseEntity<NotificationCountersDTO> getCounters(
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        return ResponseEntity.ok(notificationService.getCounters(userDetails.id()));
+    }
+
+    @PatchMapping("/read-all")
+    public ResponseEntity<NotificationCountersDTO> markAllAsRead(
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        return ResponseEntity.ok(notificationService.markAllAsRead(userDetails.id(), userDetails.username()));
+    }
+
+    @PatchMapping("/close-all")
+    public ResponseEntity<NotificationCountersDTO> closeAll(
+            @RequestParam(required = false) Notification.Type type,
+            @RequestParam(required = false) Long taskId,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        NotificationCountersDTO counters;
+        if (type != null) {
+            counters = notificationService.closeAllByType(userDetails.id(), userDetails.username(), type);
+        } else if (taskId != null) {
+            counters = notificationService.closeAllByTask(userDetails.id(), userDetails.username(), taskId);
+        } else {
+            counters = notificationService.closeAll(userDetails.id(), userDetails.username());
+        }
+        return ResponseEntity.ok(counters);
+    }
+
     @PatchMapping("/{notificationId}/close")
-    public ResponseEntity<Void> closeNotification(@PathVariable Long notificationId) {
-        notificationService.closeNotification(notificationId);
+    public ResponseEntity<Void> closeNotification(
+            @PathVariable Long notificationId,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        notificationService.closeNotification(notificationId, userDetails.id());
         return ResponseEntity.ok().build();
     }
 
     @PatchMapping("/{notificationId}/read")
-    public ResponseEntity<Void> markAsRead(@PathVariable Long notificationId) {
-        notificationService.markAsRead(notificationId);
+    public ResponseEntity<Void> markAsRead(
+            @PathVariable Long notificationId,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        notificationService.markAsRead(notificationId, userDetails.id());
         return ResponseEntity.ok().build();
     }
 }
@@ -11,12 +11,14 @@ import edu.juanoff.taskmanager.service.TaskAccessService;
 import edu.juanoff.taskmanager.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -77,13 +79,33 @@ public class TaskController {
         return ResponseEntity.ok(taskService.getTopLevelTasks(userDetails.id()));
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("""
+                 hasRole('ADMIN')\s
+                 or hasRole('USER')
+            \s""")
+    public ResponseEntity<TaskPageResponseDTO> getUserTasksPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDueDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int limit,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        TaskCursorDTO cursor = new TaskCursorDTO(afterDueDate, afterId);
+        return ResponseEntity.ok(taskService.getTopLevelTasksPage(userDetails.id(), cursor, limit));
+    }
+
     @GetMapping("/search")
     @PreAuthorize("""
                  hasRole('ADMIN')\s
                  or hasRole('USER')
             \s""")
-    public List<TaskResponseDTO> searchTasks(TaskSearchRequestDTO request) {
-        return taskService.searchTasks(request);
+    public List<TaskResponseDTO> searchTasks(
+            TaskSearchRequestDTO request,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        return taskService.searchTasks(userDetails.id(), request, page, size);
     }
 
     @DeleteMapping("/{id}")
@@ -154,6 +176,18 @@ public class TaskController {
         }
     }
 
+    @PatchMapping("/batch")
+    @PreAuthorize("""
+                 hasRole('ADMIN')\s
+                 or hasRole('USER')
+            \s""")
+    public ResponseEntity<TaskBatchUpdateResponseDTO> updateTasksBatch(
+            @Valid @RequestBody TaskBatchUpdateRequestDTO dto,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        return ResponseEntity.ok(taskService.updateTasksBatch(dto, userDetails.id()));
+    }
+
     @GetMapping("/upcoming")
     @PreAuthorize("""
                  hasRole('ADMIN')\s
@@ -185,12 +219,11 @@ public class TaskController {
                  hasRole('ADMIN')\s
                  or hasRole('USER')
             \s""")
-    public ResponseEntity<?> updateTasksNotified(
+    public ResponseEntity<List<Long>> updateTasksNotified(
             @RequestParam("minutes") int minutes,
             @AuthenticationPrincipal UserDetailsImpl userDetails
     ) {
-        taskService.markTasksAsNotified(userDetails.id(), minutes);
-        return ResponseEntity.ok().body("Tasks updated successfully");
+        return ResponseEntity.ok(taskService.markTasksAsNotified(userDetails.id(), minutes));
     }
 
     @GetMapping("/{id}/access")
@@ -5,6 +5,7 @@ import edu.juanoff.taskmanager.dto.user.UserInfoResponseDTO;
 import edu.juanoff.taskmanager.dto.user.UserProfileResponseDTO;
 import edu.juanoff.taskmanager.dto.user.UserSearchDTO;
 import edu.juanoff.taskmanager.dto.user.UserUpdateRequestDTO;
+import edu.juanoff.taskmanager.entity.NotificationSettings;
 import edu.juanoff.taskmanager.security.UserDetailsImpl;
 import edu.juanoff.taskmanager.service.UserService;
 import jakarta.validation.Valid;
@@ -51,10 +52,10 @@ public class UserController {
     }
 
     @GetMapping("/me/notification-settings")
-    public ResponseEntity<String> getNotificationSettings(
+    public ResponseEntity<NotificationSettings> getNotificationSettings(
             @AuthenticationPrincipal UserDetailsImpl userDetails
     ) {
-        String settings = userService.getNotificationSettingsByUserId(userDetails.id());
+        NotificationSettings settings = userService.getNotificationSettingsByUserId(userDetails.id());
         return ResponseEntity.ok(settings);
     }
 
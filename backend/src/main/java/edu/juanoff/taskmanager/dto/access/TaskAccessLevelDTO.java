@@ -0,0 +1,9 @@
+package edu.juanoff.taskmanager.dto.access;
+
+import edu.juanoff.taskmanager.entity.AccessLevel;
+
+public record TaskAccessLevelDTO(
+        Long taskId,
+        AccessLevel accessLevel
+) {
+}
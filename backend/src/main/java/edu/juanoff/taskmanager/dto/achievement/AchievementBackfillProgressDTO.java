@@ -0,0 +1,19 @@
+package edu.juanoff.taskmanager.dto.achievement;
+
+import java.time.LocalDateTime;
+
+public record AchievementBackfillProgressDTO(
+        Long achievementId,
+        Status status,
+        long totalUsers,
+        long processedUsers,
+        long insertedRows,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,14 @@
+package edu.juanoff.taskmanager.dto.achievement;
+
+import java.time.LocalDateTime;
+
+public record AchievementRecomputeProgressDTO(
+        AchievementBackfillProgressDTO.Status status,
+        long processedUsers,
+        long scannedTasks,
+        long updatedRows,
+        double tasksPerSecond,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+}
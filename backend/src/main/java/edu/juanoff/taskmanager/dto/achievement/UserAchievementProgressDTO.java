@@ -0,0 +1,11 @@
+package edu.juanoff.taskmanager.dto.achievement;
+
+public record UserAchievementProgressDTO(
+        Long id,
+        Long userId,
+        String achievementName,
+        int targetValue,
+        int progress,
+        boolean completed
+) {
+}
@@ -0,0 +1,26 @@
+package edu.juanoff.taskmanager.dto.google;
+
+import java.time.LocalDateTime;
+
+public record GoogleSyncJobDTO(
+        String jobId,
+        Status status,
+        int pushed,
+        int pulled,
+        int failed,
+        String error,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    public boolean isActive() {
+        return status == Status.QUEUED || status == Status.RUNNING;
+    }
+}
@@ -0,0 +1,12 @@
+package edu.juanoff.taskmanager.dto.notification;
+
+import edu.juanoff.taskmanager.entity.NotificationCounter;
+
+public record NotificationCountersDTO(
+        int unread,
+        int open
+) {
+    public static NotificationCountersDTO fromEntity(NotificationCounter counter) {
+        return new NotificationCountersDTO(counter.getUnreadCount(), counter.getOpenCount());
+    }
+}
@@ -0,0 +1,9 @@
+package edu.juanoff.taskmanager.dto.notification;
+
+import java.time.LocalDateTime;
+
+public record NotificationCursorDTO(
+        LocalDateTime beforeCreatedAt,
+        Long beforeId
+) {
+}
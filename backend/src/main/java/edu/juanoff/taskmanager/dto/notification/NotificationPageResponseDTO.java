@@ -0,0 +1,9 @@
+package edu.juanoff.taskmanager.dto.notification;
+
+import java.util.List;
+
+public record NotificationPageResponseDTO(
+        List<NotificationResponseDTO> notifications,
+        NotificationCursorDTO nextCursor
+) {
+}
@@ -0,0 +1,9 @@
+package edu.juanoff.taskmanager.dto.notification;
+
+public record NotificationPurgeCandidateDTO(
+        Long id,
+        Long userId,
+        boolean isRead,
+        boolean isClosed
+) {
+}
@@ -0,0 +1,11 @@
+package edu.juanoff.taskmanager.dto.notification;
+
+import java.time.LocalDateTime;
+
+public record TaskReminderDTO(
+        Long id,
+        Long taskId,
+        Long userId,
+        LocalDateTime notifyAt
+) {
+}
@@ -0,0 +1,16 @@
+package edu.juanoff.taskmanager.dto.task;
+
+import edu.juanoff.taskmanager.entity.Task;
+
+import java.time.LocalDateTime;
+
+public record TaskAchievementFactDTO(
+        Long userId,
+        Task.StatusType status,
+        Task.Priority priority,
+        boolean hasCategory,
+        LocalDateTime dueDate,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt
+) {
+}
@@ -0,0 +1,22 @@
+package edu.juanoff.taskmanager.dto.task;
+
+import edu.juanoff.taskmanager.entity.Task;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+public record TaskBatchItemDTO(
+        @NotNull(message = "Task ID is required")
+        Long taskId,
+
+        Task.StatusType status,
+
+        @FutureOrPresent(message = "Due date must be in the future or present")
+        LocalDateTime dueDate,
+
+        Task.Priority priority,
+
+        Long categoryId
+) {
+}
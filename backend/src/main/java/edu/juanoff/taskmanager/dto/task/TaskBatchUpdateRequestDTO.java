@@ -0,0 +1,14 @@
+package edu.juanoff.taskmanager.dto.task;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record TaskBatchUpdateRequestDTO(
+        @NotEmpty(message = "Updates are required")
+        @Size(max = 200, message = "No more than 200 updates per batch")
+        List<@Valid TaskBatchItemDTO> updates
+) {
+}
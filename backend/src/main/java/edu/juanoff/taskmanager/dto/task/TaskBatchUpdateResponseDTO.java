@@ -0,0 +1,9 @@
+package edu.juanoff.taskmanager.dto.task;
+
+import java.util.List;
+
+public record TaskBatchUpdateResponseDTO(
+        List<Long> updatedTaskIds,
+        List<Long> rejectedTaskIds
+) {
+}
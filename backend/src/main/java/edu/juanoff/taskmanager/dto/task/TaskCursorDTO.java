@@ -0,0 +1,9 @@
+package edu.juanoff.taskmanager.dto.task;
+
+import java.time.LocalDateTime;
+
+public record TaskCursorDTO(
+        LocalDateTime afterDueDate,
+        Long afterId
+) {
+}
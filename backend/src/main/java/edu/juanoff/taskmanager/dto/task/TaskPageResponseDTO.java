@@ -0,0 +1,9 @@
+package edu.juanoff.taskmanager.dto.task;
+
+import java.util.List;
+
+public record TaskPageResponseDTO(
+        List<TaskResponseDTO> tasks,
+        TaskCursorDTO nextCursor
+) {
+}
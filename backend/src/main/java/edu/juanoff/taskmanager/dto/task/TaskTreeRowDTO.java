@@ -0,0 +1,22 @@
+package edu.juanoff.taskmanager.dto.task;
+
+import edu.juanoff.taskmanager.entity.AccessLevel;
+import edu.juanoff.taskmanager.entity.Task;
+
+import java.time.LocalDateTime;
+
+public record TaskTreeRowDTO(
+        Long id,
+        String title,
+        String description,
+        Task.StatusType status,
+        Task.Priority priority,
+        LocalDateTime dueDate,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt,
+        Long userId,
+        Long parentTaskId,
+        Long categoryId,
+        AccessLevel sharedAccessLevel
+) {
+}
@@ -5,6 +5,8 @@ import edu.juanoff.taskmanager.entity.Task;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 public record TaskWithSubtasksResponseDTO(
         Long id,
@@ -42,4 +44,36 @@ public record TaskWithSubtasksResponseDTO(
                         .toList()
         );
     }
+
+    public static TaskWithSubtasksResponseDTO fromRows(TaskTreeRowDTO root, List<TaskTreeRowDTO> rows,
+                                                       AccessLevel accessLevel) {
+        Map<Long, List<TaskTreeRowDTO>> childrenByParentId = rows.stream()
+                .filter(row -> row.parentTaskId() != null)
+                .collect(Collectors.groupingBy(TaskTreeRowDTO::parentTaskId));
+        return fromRow(root, childrenByParentId, accessLevel);
+    }
+
+    private static TaskWithSubtasksResponseDTO fromRow(TaskTreeRowDTO row,
+                                                       Map<Long, List<TaskTreeRowDTO>> childrenByParentId,
+                                                       AccessLevel accessLevel) {
+        List<TaskTreeRowDTO> children = childrenByParentId.getOrDefault(row.id(), List.of());
+        return new TaskWithSubtasksResponseDTO(
+                row.id(),
+                row.title(),
+                row.description(),
+                row.status(),
+                row.priority(),
+                row.dueDate(),
+                row.createdAt(),
+                row.completedAt(),
+                row.userId(),
+                row.parentTaskId(),
+                row.categoryId(),
+                children.size(),
+                accessLevel,
+                children.stream()
+                        .map(child -> fromRow(child, childrenByParentId, accessLevel))
+                        .toList()
+        );
+    }
 }
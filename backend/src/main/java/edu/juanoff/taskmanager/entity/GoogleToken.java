@@ -39,4 +39,8 @@ public class GoogleToken {
 
     @Column(name = "email")
     private String email;
+
+    //! nextSyncToken Calendar API: следующая синхронизация запрашивает только изменившиеся события
+    @Column(name = "calendar_sync_token")
+    private String calendarSyncToken;
 }
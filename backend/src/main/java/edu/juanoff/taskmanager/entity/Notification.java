@@ -17,8 +17,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 public class Notification {
+    //! Пул последовательности (INCREMENT BY 50 в changeset 029) вместо IDENTITY, иначе Hibernate не батчит INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_id_seq")
+    @SequenceGenerator(name = "notifications_id_seq", sequenceName = "notifications_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -37,6 +39,10 @@ public class Notification {
     @Convert(converter = MetadataConverter.class)
     private NotificationMetadata metadata;
 
+    //! Дублирует metadata.taskId, чтобы закрывать уведомления по задаче одним UPDATE
+    @Column(name = "task_id")
+    private Long taskId;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
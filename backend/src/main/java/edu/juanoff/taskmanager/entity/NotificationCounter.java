@@ -0,0 +1,28 @@
+package edu.juanoff.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "notification_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationCounter {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    //! Открытые и непрочитанные
+    @Builder.Default
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount = 0;
+
+    @Builder.Default
+    @Column(name = "open_count", nullable = false)
+    private Integer openCount = 0;
+}
@@ -1,11 +1,21 @@
 package edu.juanoff.taskmanager.entity;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
 import lombok.Data;
 
 @Data
+@Embeddable
 public class NotificationSettings {
+    @Column(name = "task_notification_interval", nullable = false)
     private int taskNotificationInterval = 60;
+
+    @Column(name = "task_enabled", nullable = false)
     private boolean taskEnabled = true;
+
+    @Column(name = "invitation_enabled", nullable = false)
     private boolean invitationEnabled = true;
+
+    @Column(name = "achievement_enabled", nullable = false)
     private boolean achievementEnabled = true;
 }
@@ -26,9 +26,6 @@ public class SyncHistory {
     @Column(name = "sync_time", nullable = false)
     private LocalDateTime syncTime;
 
-    @Column(name = "event_ids", length = 4000)
-    private String eventIds;
-
     @Column(name = "status", nullable = false)
     private String status;
 }
@@ -0,0 +1,40 @@
+package edu.juanoff.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "sync_history_items", indexes = {
+        @Index(name = "idx_sync_history_items_sync_id", columnList = "sync_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncHistoryItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sync_id", nullable = false)
+    private SyncHistory syncHistory;
+
+    //! Без внешнего ключа: задача может быть удалена, а запись истории остается
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false)
+    private Operation operation;
+
+    public enum Operation {
+        CREATED, UPDATED
+    }
+}
@@ -45,6 +45,10 @@ public class Task {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    //! Время последнего изменения задачи: по нему инкрементальная синхронизация отбирает задачи для выгрузки
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
@@ -110,8 +114,21 @@ public class Task {
         return level;
     }
 
+    //! updatedAt можно задать заранее: задачи из календаря создаются уже синхронизированными
     @PrePersist
+    public void onCreate() {
+        if (updatedAt == null) {
+            updatedAt = LocalDateTime.now();
+        }
+        validateNesting();
+    }
+
     @PreUpdate
+    public void onUpdate() {
+        updatedAt = LocalDateTime.now();
+        validateNesting();
+    }
+
     public void validateNesting() {
         if (getNestingLevel() >= 2) {
             throw new IllegalStateException("Нельзя создать подзадачу у подзадачи.");
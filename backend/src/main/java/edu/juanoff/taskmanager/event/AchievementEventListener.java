@@ -1,12 +1,8 @@
 package edu.juanoff.taskmanager.event;
 
-import edu.juanoff.taskmanager.service.UserAchievementService;
-import edu.juanoff.taskmanager.util.AsyncExecutorNames;
+import edu.juanoff.taskmanager.service.AchievementLaneDispatcher;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
@@ -14,12 +10,10 @@ import org.springframework.transaction.event.TransactionalEventListener;
 @RequiredArgsConstructor
 public class AchievementEventListener {
 
-    private final UserAchievementService userAchievementService;
+    private final AchievementLaneDispatcher achievementLaneDispatcher;
 
-    @Async(AsyncExecutorNames.ACHIEVEMENT)
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void handleAchievementUpdate(AchievementsUpdatedEvent event) {
-        userAchievementService.processAchievementUpdate(event);
+        achievementLaneDispatcher.submit(event);
     }
 }
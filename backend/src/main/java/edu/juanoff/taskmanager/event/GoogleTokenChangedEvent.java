@@ -0,0 +1,4 @@
+package edu.juanoff.taskmanager.event;
+
+public record GoogleTokenChangedEvent(Long userId) {
+}
@@ -0,0 +1,6 @@
+package edu.juanoff.taskmanager.event;
+
+import edu.juanoff.taskmanager.dto.notification.NotificationCountersDTO;
+
+public record NotificationCountersChangedEvent(String username, NotificationCountersDTO counters) {
+}
@@ -43,4 +43,10 @@ public class NotificationEventListener {
         TaskAccess taskAccess = event.taskAccess();
         notificationService.createNotificationForAccessRemoved(taskAccess);
     }
+
+    @Async(AsyncExecutorNames.NOTIFICATION)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleCountersChanged(NotificationCountersChangedEvent event) {
+        notificationService.sendCountersToUser(event.username(), event.counters());
+    }
 }
@@ -0,0 +1,6 @@
+package edu.juanoff.taskmanager.event;
+
+import edu.juanoff.taskmanager.entity.TaskAccess;
+
+public record TaskAccessGrantedEvent(TaskAccess taskAccess) {
+}
@@ -0,0 +1,7 @@
+package edu.juanoff.taskmanager.event;
+
+import java.util.List;
+import java.util.Set;
+
+public record TaskDeletedEvent(List<Long> taskIds, Set<Long> affectedUserIds) {
+}
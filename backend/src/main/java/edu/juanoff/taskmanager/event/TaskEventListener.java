@@ -1,6 +1,6 @@
 package edu.juanoff.taskmanager.event;
 
-import edu.juanoff.taskmanager.service.NotificationService;
+import edu.juanoff.taskmanager.service.TaskUpdateDispatcher;
 import edu.juanoff.taskmanager.util.AsyncExecutorNames;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Async;
@@ -12,11 +12,16 @@ import org.springframework.transaction.event.TransactionalEventListener;
 @RequiredArgsConstructor
 public class TaskEventListener {
 
-    private final NotificationService notificationService;
+    private final TaskUpdateDispatcher taskUpdateDispatcher;
 
-    @Async(AsyncExecutorNames.NOTIFICATION)
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void handleTaskUpdate(TaskUpdatedEvent event) {
-        notificationService.notifyTaskUpdate(event);
+        taskUpdateDispatcher.submit(event);
+    }
+
+    @Async(AsyncExecutorNames.NOTIFICATION)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTasksBatchUpdate(TasksBatchUpdatedEvent event) {
+        taskUpdateDispatcher.submitAll(event);
     }
 }
@@ -0,0 +1,6 @@
+package edu.juanoff.taskmanager.event;
+
+import java.util.List;
+
+public record TaskScheduleChangedEvent(List<Long> taskIds) {
+}
@@ -0,0 +1,8 @@
+package edu.juanoff.taskmanager.event;
+
+import edu.juanoff.taskmanager.dto.task.TaskUpdateDTO;
+
+import java.util.List;
+
+public record TasksBatchUpdatedEvent(List<TaskUpdateDTO> taskUpdateDTOs, Long userId) {
+}
@@ -0,0 +1,23 @@
+package edu.juanoff.taskmanager.filter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+//! Фильтр dueDateFilter как полуинтервал [from, to) по due_date; noDate - только задачи без срока
+public record DueDateWindow(LocalDateTime from, LocalDateTime to, boolean noDate) {
+
+    public static final DueDateWindow ANY = new DueDateWindow(null, null, false);
+
+    public static DueDateWindow of(String dueDateFilter, LocalDate today) {
+        if (dueDateFilter == null) {
+            return ANY;
+        }
+        return switch (dueDateFilter) {
+            case "today" -> new DueDateWindow(today.atStartOfDay(), today.plusDays(1).atStartOfDay(), false);
+            case "week" -> new DueDateWindow(today.atStartOfDay(), today.plusDays(8).atStartOfDay(), false);
+            case "overdue" -> new DueDateWindow(null, today.atStartOfDay(), false);
+            case "noDate" -> new DueDateWindow(null, null, true);
+            default -> ANY;
+        };
+    }
+}
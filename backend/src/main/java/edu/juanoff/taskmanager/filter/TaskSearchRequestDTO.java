@@ -3,13 +3,13 @@ package edu.juanoff.taskmanager.filter;
 import edu.juanoff.taskmanager.entity.AccessLevel;
 import edu.juanoff.taskmanager.entity.Task;
 
+//! Пользователь берется из аутентификации, а не из параметров запроса
 public record TaskSearchRequestDTO(
         String query,
         Task.StatusType status,
         Task.Priority priority,
         Long categoryId,
         String dueDateFilter,
-        AccessLevel accessLevel,
-        Long userId
+        AccessLevel accessLevel
 ) {
 }
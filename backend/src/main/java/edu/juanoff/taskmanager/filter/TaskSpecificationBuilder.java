@@ -1,6 +1,10 @@
 package edu.juanoff.taskmanager.filter;
 
+import edu.juanoff.taskmanager.entity.AccessLevel;
 import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.entity.TaskAccess;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
@@ -9,18 +13,10 @@ import java.time.LocalDate;
 @Component
 public class TaskSpecificationBuilder {
 
-    public Specification<Task> build(TaskSearchRequestDTO request) {
+    //! Только задачи верхнего уровня, которыми пользователь владеет или к которым у него есть доступ
+    public Specification<Task> build(Long userId, TaskSearchRequestDTO request) {
         Specification<Task> spec = Specification.where(((root, q, cb) -> cb.isNull(root.get("parentTask"))));
-        LocalDate today = LocalDate.now();
-
-        if (request.query() != null && !request.query().isEmpty()) {
-            String lowerQuery = "%" + request.query().toLowerCase() + "%";
-            spec = spec.and((root, q, cb) ->
-                    cb.or(
-                            cb.like(cb.lower(root.get("title")), lowerQuery),
-                            cb.like(cb.lower(root.get("description")), lowerQuery)
-                    ));
-        }
+        spec = spec.and(visibleTo(userId, request.accessLevel()));
 
         if (request.status() != null) {
             spec = spec.and((root, q, cb) -> cb.equal(root.get("status"), request.status()));
@@ -34,27 +30,36 @@ public class TaskSpecificationBuilder {
             spec = spec.and((root, q, cb) -> cb.equal(root.get("category").get("id"), request.categoryId()));
         }
 
-        if (request.dueDateFilter() != null) {
-            spec = switch (request.dueDateFilter()) {
-                case "today" -> spec.and((root, q, cb) -> cb.equal(root.get("dueDate"), today));
-                case "week" -> spec.and((root, q, cb) -> cb.between(root.get("dueDate"), today, today.plusDays(7)));
-                case "overdue" -> spec.and((root, q, cb) -> cb.and(
-                        cb.isNotNull(root.get("dueDate")),
-                        cb.lessThan(root.get("dueDate"), today)));
-                case "noDate" -> spec.and((root, q, cb) -> cb.isNull(root.get("dueDate")));
-                default -> spec;
-            };
+        DueDateWindow window = DueDateWindow.of(request.dueDateFilter(), LocalDate.now());
+        if (window.noDate()) {
+            spec = spec.and((root, q, cb) -> cb.isNull(root.get("dueDate")));
         }
-
-        if (request.accessLevel() != null && request.userId() != null) {
-            spec = spec.and((root, q, cb) -> cb.and(
-                    cb.equal(root.join("taskAccesses").get("user").get("id"), request.userId()),
-                    cb.equal(root.join("taskAccesses").get("accessLevel"), request.accessLevel())));
-        } else if (request.userId() != null) {
-            spec = spec.and((root, q, cb) ->
-                    cb.equal(root.join("taskAccesses").get("user").get("id"), request.userId()));
+        if (window.from() != null) {
+            spec = spec.and((root, q, cb) -> cb.greaterThanOrEqualTo(root.get("dueDate"), window.from()));
+        }
+        if (window.to() != null) {
+            spec = spec.and((root, q, cb) -> cb.lessThan(root.get("dueDate"), window.to()));
         }
 
         return spec;
     }
+
+    private static Specification<Task> visibleTo(Long userId, AccessLevel accessLevel) {
+        if (accessLevel == AccessLevel.OWNER) {
+            return (root, q, cb) -> cb.equal(root.get("user").get("id"), userId);
+        }
+
+        return (root, q, cb) -> {
+            Subquery<Long> shared = q.subquery(Long.class);
+            Root<TaskAccess> access = shared.from(TaskAccess.class);
+            shared.select(access.get("id")).where(
+                    cb.equal(access.get("task"), root),
+                    cb.equal(access.get("user").get("id"), userId),
+                    accessLevel == null ? cb.conjunction() : cb.equal(access.get("accessLevel"), accessLevel)
+            );
+            return accessLevel == null
+                    ? cb.or(cb.equal(root.get("user").get("id"), userId), cb.exists(shared))
+                    : cb.exists(shared);
+        };
+    }
 }
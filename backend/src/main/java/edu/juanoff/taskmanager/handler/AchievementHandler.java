@@ -1,13 +1,24 @@
 package edu.juanoff.taskmanager.handler;
 
+import edu.juanoff.taskmanager.dto.task.TaskAchievementFactDTO;
 import edu.juanoff.taskmanager.dto.task.TaskResponseDTO;
 import edu.juanoff.taskmanager.entity.Task;
 import edu.juanoff.taskmanager.entity.UserAchievement;
 
+import java.util.Set;
+
 public interface AchievementHandler {
 
+    AchievementName name();
+
+    //! Действия, на которые реагирует обработчик; по ним строится индекс в UserAchievementService
+    Set<String> actions();
+
     void handle(UserAchievement achievement, TaskResponseDTO curTask, Task newTask, String action);
 
+    //! Правило для пересчета с нуля: учитывается ли задача верхнего уровня в прогрессе
+    boolean isCounted(TaskAchievementFactDTO task);
+
     default boolean isTaskCompleted(TaskResponseDTO curTask, Task newTask) {
         return !Task.StatusType.DONE.equals(curTask.status()) && Task.StatusType.DONE.equals(newTask.getStatus());
     }
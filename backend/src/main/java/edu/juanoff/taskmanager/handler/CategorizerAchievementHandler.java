@@ -1,5 +1,6 @@
 package edu.juanoff.taskmanager.handler;
 
+import edu.juanoff.taskmanager.dto.task.TaskAchievementFactDTO;
 import edu.juanoff.taskmanager.dto.task.TaskResponseDTO;
 import edu.juanoff.taskmanager.entity.Task;
 import edu.juanoff.taskmanager.entity.UserAchievement;
@@ -7,12 +8,24 @@ import edu.juanoff.taskmanager.service.AchievementProgressService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class CategorizerAchievementHandler implements AchievementHandler {
 
     private final AchievementProgressService achievementProgressService;
 
+    @Override
+    public AchievementName name() {
+        return AchievementName.CATEGORIZER;
+    }
+
+    @Override
+    public Set<String> actions() {
+        return Set.of(AchievementAction.CREATE);
+    }
+
     @Override
     public void handle(UserAchievement userAchievement, TaskResponseDTO curTask, Task newTask, String action) {
         if (AchievementAction.CREATE.equals(action) && newTask.getParentTask() == null
@@ -20,4 +33,9 @@ public class CategorizerAchievementHandler implements AchievementHandler {
             achievementProgressService.incrementProgress(userAchievement, userAchievement.getAchievement().getTargetValue());
         }
     }
+
+    @Override
+    public boolean isCounted(TaskAchievementFactDTO task) {
+        return task.hasCategory();
+    }
 }
@@ -1,5 +1,6 @@
 package edu.juanoff.taskmanager.handler;
 
+import edu.juanoff.taskmanager.dto.task.TaskAchievementFactDTO;
 import edu.juanoff.taskmanager.dto.task.TaskResponseDTO;
 import edu.juanoff.taskmanager.entity.Task;
 import edu.juanoff.taskmanager.entity.UserAchievement;
@@ -8,12 +9,24 @@ import edu.juanoff.taskmanager.util.TaskStatusUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class NewbieAchievementHandler implements AchievementHandler {
 
     private final AchievementProgressService achievementProgressService;
 
+    @Override
+    public AchievementName name() {
+        return AchievementName.NEWBIE;
+    }
+
+    @Override
+    public Set<String> actions() {
+        return Set.of(AchievementAction.COMPLETE);
+    }
+
     @Override
     public void handle(UserAchievement userAchievement, TaskResponseDTO curTask, Task newTask, String action) {
         if (!AchievementAction.COMPLETE.equals(action) || newTask.getParentTask() != null) {
@@ -27,4 +40,9 @@ public class NewbieAchievementHandler implements AchievementHandler {
             achievementProgressService.decrementProgress(userAchievement);
         }
     }
+
+    @Override
+    public boolean isCounted(TaskAchievementFactDTO task) {
+        return Task.StatusType.DONE.equals(task.status());
+    }
 }
@@ -1,5 +1,6 @@
 package edu.juanoff.taskmanager.handler;
 
+import edu.juanoff.taskmanager.dto.task.TaskAchievementFactDTO;
 import edu.juanoff.taskmanager.dto.task.TaskResponseDTO;
 import edu.juanoff.taskmanager.entity.Task;
 import edu.juanoff.taskmanager.entity.UserAchievement;
@@ -7,16 +8,33 @@ import edu.juanoff.taskmanager.service.AchievementProgressService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class PlannerAchievementHandler implements AchievementHandler {
 
     private final AchievementProgressService achievementProgressService;
 
+    @Override
+    public AchievementName name() {
+        return AchievementName.PLANNER;
+    }
+
+    @Override
+    public Set<String> actions() {
+        return Set.of(AchievementAction.CREATE);
+    }
+
     @Override
     public void handle(UserAchievement userAchievement, TaskResponseDTO curTask, Task newTask, String action) {
         if (AchievementAction.CREATE.equals(action) && newTask.getDueDate() != null && newTask.getParentTask() == null) {
             achievementProgressService.incrementProgress(userAchievement, userAchievement.getAchievement().getTargetValue());
         }
     }
+
+    @Override
+    public boolean isCounted(TaskAchievementFactDTO task) {
+        return task.dueDate() != null;
+    }
 }
@@ -1,5 +1,6 @@
 package edu.juanoff.taskmanager.handler;
 
+import edu.juanoff.taskmanager.dto.task.TaskAchievementFactDTO;
 import edu.juanoff.taskmanager.dto.task.TaskResponseDTO;
 import edu.juanoff.taskmanager.entity.Task;
 import edu.juanoff.taskmanager.entity.UserAchievement;
@@ -8,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Component
 @RequiredArgsConstructor
@@ -15,6 +17,16 @@ public class SprintAchievementHandler implements AchievementHandler {
 
     private final AchievementProgressService achievementProgressService;
 
+    @Override
+    public AchievementName name() {
+        return AchievementName.SPRINTER;
+    }
+
+    @Override
+    public Set<String> actions() {
+        return Set.of(AchievementAction.COMPLETE);
+    }
+
     @Override
     public void handle(UserAchievement userAchievement, TaskResponseDTO curTask, Task newTask, String action) {
         if (!AchievementAction.COMPLETE.equals(action) || newTask.getParentTask() != null) {
@@ -30,4 +42,10 @@ public class SprintAchievementHandler implements AchievementHandler {
             achievementProgressService.decrementProgress(userAchievement);
         }
     }
+
+    @Override
+    public boolean isCounted(TaskAchievementFactDTO task) {
+        return Task.StatusType.DONE.equals(task.status()) && task.createdAt() != null && task.completedAt() != null
+                && task.completedAt().isBefore(task.createdAt().plusHours(1));
+    }
 }
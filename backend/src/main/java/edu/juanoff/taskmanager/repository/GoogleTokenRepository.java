@@ -2,7 +2,11 @@ package edu.juanoff.taskmanager.repository;
 
 import edu.juanoff.taskmanager.entity.GoogleToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -11,4 +15,9 @@ public interface GoogleTokenRepository extends JpaRepository<GoogleToken, Long>
     Optional<GoogleToken> findByUserId(Long userId);
 
     boolean existsByUserId(Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE GoogleToken g SET g.calendarSyncToken = :syncToken WHERE g.user.id = :userId")
+    int updateCalendarSyncToken(@Param("userId") Long userId, @Param("syncToken") String syncToken);
 }
@@ -0,0 +1,41 @@
+package edu.juanoff.taskmanager.repository;
+
+import edu.juanoff.taskmanager.entity.NotificationCounter;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationCounterRepository extends CrudRepository<NotificationCounter, Long> {
+
+    //! Счетчики читаются в той же транзакции после дельты, поэтому контекст сбрасывается
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE NotificationCounter c " +
+            "SET c.unreadCount = c.unreadCount + :unreadDelta, c.openCount = c.openCount + :openDelta " +
+            "WHERE c.userId = :userId")
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("unreadDelta") int unreadDelta,
+                   @Param("openDelta") int openDelta);
+
+    //! Создает строку по текущему состоянию notifications; если ее уже вставила другая транзакция, возвращает 0.
+    //! Без conflict target: единственное уникальное ограничение - PK, а H2 в режиме PostgreSQL понимает только такую форму
+    @Modifying
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count, open_count) " +
+            "SELECT :userId, " +
+            "COALESCE(SUM(CASE WHEN n.is_read = false AND n.is_closed = false THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN n.is_closed = false THEN 1 ELSE 0 END), 0) " +
+            "FROM notifications n WHERE n.user_id = :userId " +
+            "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertCountedIfAbsent(@Param("userId") Long userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE NotificationCounter c " +
+            "SET c.unreadCount = :unreadCount, c.openCount = :openCount " +
+            "WHERE c.userId = :userId")
+    int overwrite(@Param("userId") Long userId,
+                  @Param("unreadCount") int unreadCount,
+                  @Param("openCount") int openCount);
+}
@@ -0,0 +1,54 @@
+package edu.juanoff.taskmanager.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+//! Месячные секции notifications_pYYYY_MM (только PostgreSQL, см. changeset 028)
+@Repository
+@RequiredArgsConstructor
+public class NotificationPartitionRepository {
+
+    private static final String PARTITION_PREFIX = "notifications_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("uuuu_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<YearMonth> findMonthlyPartitions() {
+        return jdbcTemplate.queryForList(
+                        "SELECT c.relname FROM pg_inherits i " +
+                                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                                "JOIN pg_class p ON p.oid = i.inhparent " +
+                                "WHERE p.relname = 'notifications' AND c.relname LIKE 'notifications\\_p%'",
+                        String.class
+                ).stream()
+                .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX))
+                .sorted()
+                .toList();
+    }
+
+    public void createMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) +
+                " PARTITION OF notifications FOR VALUES FROM ('" + month.atDay(1) +
+                "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    public List<Long> findUserIdsWithOpenNotifications(YearMonth month) {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT user_id FROM " + partitionName(month) + " WHERE is_closed = false",
+                Long.class
+        );
+    }
+
+    public void dropMonthlyPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    private String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -1,20 +1,126 @@
 package edu.juanoff.taskmanager.repository;
 
+import edu.juanoff.taskmanager.dto.notification.NotificationPurgeCandidateDTO;
 import edu.juanoff.taskmanager.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends CrudRepository<Notification, Long> {
+
+    String OPEN_PAGE_SELECT = "SELECT n FROM Notification n WHERE n.user.id = :userId AND n.isClosed = false ";
+    String ALL_PAGE_SELECT = "SELECT n FROM Notification n WHERE n.user.id = :userId ";
+    String PAGE_BEFORE_CURSOR = "AND (n.createdAt < :beforeCreatedAt " +
+            "OR (n.createdAt = :beforeCreatedAt AND n.id < :beforeId)) ";
+    String PAGE_ORDER = "ORDER BY n.createdAt DESC, n.id DESC";
+
     List<Notification> findByUserIdAndIsClosedFalse(Long userId);
 
     List<Notification> findByUserId(Long userId);
 
+    Optional<Notification> findByIdAndUserId(Long id, Long userId);
+
+    long countByUserIdAndIsClosedFalse(Long userId);
+
+    long countByUserIdAndIsReadFalseAndIsClosedFalse(Long userId);
+
+    @Query(OPEN_PAGE_SELECT + PAGE_ORDER)
+    List<Notification> findOpenPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(OPEN_PAGE_SELECT + PAGE_BEFORE_CURSOR + PAGE_ORDER)
+    List<Notification> findOpenPageBefore(@Param("userId") Long userId,
+                                          @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                          @Param("beforeId") Long beforeId,
+                                          Pageable pageable);
+
+    @Query(ALL_PAGE_SELECT + PAGE_ORDER)
+    List<Notification> findPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(ALL_PAGE_SELECT + PAGE_BEFORE_CURSOR + PAGE_ORDER)
+    List<Notification> findPageBefore(@Param("userId") Long userId,
+                                      @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                      @Param("beforeId") Long beforeId,
+                                      Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markReadById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true " +
+            "WHERE n.id = :id AND n.isRead = false AND n.isClosed = false")
+    int markReadOpenById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isClosed = true WHERE n.id = :id AND n.isClosed = false")
+    int closeById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isClosed = true " +
+            "WHERE n.id = :id AND n.isClosed = false AND n.isRead = false")
+    int closeUnreadById(@Param("id") Long id);
+
+    //! Массовые операции разбиты на два условных UPDATE: число строк первого дает изменение unread,
+    //! сумма обоих - изменение open, поэтому счетчики обновляются дельтой без пересчета
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true " +
+            "WHERE n.user.id = :userId AND n.isRead = false AND n.isClosed = false")
+    int markAllReadOpenByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllReadByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isClosed = true " +
+            "WHERE n.user.id = :userId AND n.isClosed = false AND n.isRead = false")
+    int closeAllUnreadByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isClosed = true WHERE n.user.id = :userId AND n.isClosed = false")
+    int closeAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isClosed = true " +
+            "WHERE n.user.id = :userId AND n.type = :type AND n.isClosed = false AND n.isRead = false")
+    int closeAllUnreadByUserIdAndType(@Param("userId") Long userId, @Param("type") Notification.Type type);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isClosed = true " +
+            "WHERE n.user.id = :userId AND n.type = :type AND n.isClosed = false")
+    int closeAllByUserIdAndType(@Param("userId") Long userId, @Param("type") Notification.Type type);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isClosed = true " +
+            "WHERE n.user.id = :userId AND n.taskId = :taskId AND n.isClosed = false AND n.isRead = false")
+    int closeAllUnreadByUserIdAndTaskId(@Param("userId") Long userId, @Param("taskId") Long taskId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isClosed = true " +
+            "WHERE n.user.id = :userId AND n.taskId = :taskId AND n.isClosed = false")
+    int closeAllByUserIdAndTaskId(@Param("userId") Long userId, @Param("taskId") Long taskId);
+
+    String PURGE_CANDIDATE_SELECT = "SELECT new edu.juanoff.taskmanager.dto.notification.NotificationPurgeCandidateDTO(" +
+            "n.id, n.user.id, n.isRead, n.isClosed) FROM Notification n ";
+
+    @Query(PURGE_CANDIDATE_SELECT + "WHERE n.isClosed = true AND n.createdAt < :cutoff")
+    List<NotificationPurgeCandidateDTO> findClosedPurgeCandidates(@Param("cutoff") LocalDateTime cutoff,
+                                                                  Pageable pageable);
+
+    @Query(PURGE_CANDIDATE_SELECT + "WHERE n.type = :type AND n.createdAt < :cutoff")
+    List<NotificationPurgeCandidateDTO> findPurgeCandidatesByType(@Param("type") Notification.Type type,
+                                                                  @Param("cutoff") LocalDateTime cutoff,
+                                                                  Pageable pageable);
+
     @Modifying
-    @Query("DELETE FROM Notification n WHERE n.isClosed = true")
-    int deleteClosedNotifications();
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,19 @@
+package edu.juanoff.taskmanager.repository;
+
+import edu.juanoff.taskmanager.entity.SyncHistoryItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SyncHistoryItemRepository extends JpaRepository<SyncHistoryItem, Long> {
+
+    @Query("SELECT i.eventId FROM SyncHistoryItem i WHERE i.syncHistory.id = :syncId AND i.operation = :operation")
+    List<String> findEventIdsBySyncIdAndOperation(
+            @Param("syncId") Long syncId,
+            @Param("operation") SyncHistoryItem.Operation operation
+    );
+}
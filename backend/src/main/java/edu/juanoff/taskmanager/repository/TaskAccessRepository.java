@@ -1,11 +1,13 @@
 package edu.juanoff.taskmanager.repository;
 
+import edu.juanoff.taskmanager.dto.access.TaskAccessLevelDTO;
 import edu.juanoff.taskmanager.entity.TaskAccess;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,4 +26,17 @@ public interface TaskAccessRepository extends CrudRepository<TaskAccess, Long> {
     List<TaskAccess> findByTaskId(@Param("taskId") Long taskId);
 
     Optional<TaskAccess> findByTaskIdAndUserId(Long taskId, Long userId);
+
+    @Query("SELECT ta FROM TaskAccess ta JOIN FETCH ta.user WHERE ta.task.id IN :taskIds")
+    List<TaskAccess> findByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT new edu.juanoff.taskmanager.dto.access.TaskAccessLevelDTO(ta.task.id, ta.accessLevel) " +
+            "FROM TaskAccess ta WHERE ta.user.id = :userId")
+    List<TaskAccessLevelDTO> findAccessLevelsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT ta.user.id FROM TaskAccess ta WHERE ta.task.id IN :taskIds")
+    List<Long> findUserIdsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT ta FROM TaskAccess ta JOIN FETCH ta.user u LEFT JOIN FETCH u.settings WHERE ta.task.id IN :taskIds")
+    List<TaskAccess> findWithUserSettingsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
 }
@@ -0,0 +1,47 @@
+package edu.juanoff.taskmanager.repository;
+
+import edu.juanoff.taskmanager.dto.notification.TaskReminderDTO;
+import edu.juanoff.taskmanager.entity.TaskReminder;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskReminderRepository extends CrudRepository<TaskReminder, Long> {
+
+    String REMINDER_SELECT = "SELECT new edu.juanoff.taskmanager.dto.notification.TaskReminderDTO(" +
+            "r.id, r.task.id, r.user.id, r.notifyAt) " +
+            "FROM TaskReminder r ";
+
+    @Query(REMINDER_SELECT + "WHERE r.sent = false AND r.notifyAt <= :until")
+    List<TaskReminderDTO> findPendingUntil(@Param("until") LocalDateTime until);
+
+    @Query(REMINDER_SELECT + "WHERE r.sent = false AND r.notifyAt <= :until AND r.task.id IN :taskIds")
+    List<TaskReminderDTO> findPendingUntilByTaskIdIn(@Param("until") LocalDateTime until,
+                                                     @Param("taskIds") Collection<Long> taskIds);
+
+    @Query(REMINDER_SELECT + "WHERE r.sent = false AND r.notifyAt <= :until AND r.user.id = :userId")
+    List<TaskReminderDTO> findPendingUntilByUserId(@Param("until") LocalDateTime until,
+                                                   @Param("userId") Long userId);
+
+    @Query("SELECT r FROM TaskReminder r WHERE r.task.id IN :taskIds")
+    List<TaskReminder> findAllByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT r FROM TaskReminder r WHERE r.user.id = :userId")
+    List<TaskReminder> findAllByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT r FROM TaskReminder r JOIN FETCH r.task t JOIN FETCH t.user " +
+            "JOIN FETCH r.user u LEFT JOIN FETCH u.settings WHERE r.id = :id")
+    Optional<TaskReminder> findWithTaskAndUserById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE TaskReminder r SET r.sent = true WHERE r.id = :id AND r.sent = false")
+    int markSentById(@Param("id") Long id);
+}
@@ -1,20 +1,48 @@
 package edu.juanoff.taskmanager.repository;
 
+import edu.juanoff.taskmanager.dto.task.TaskAchievementFactDTO;
+import edu.juanoff.taskmanager.dto.task.TaskResponseDTO;
+import edu.juanoff.taskmanager.dto.task.TaskTreeRowDTO;
+import edu.juanoff.taskmanager.entity.SyncHistoryItem;
 import edu.juanoff.taskmanager.entity.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends CrudRepository<Task, Long>, JpaSpecificationExecutor<Task> {
 
+    //! Собственные задачи верхнего уровня и задачи, к которым выдан доступ, одним запросом
+    String TASK_PAGE_SELECT = "SELECT new edu.juanoff.taskmanager.dto.task.TaskResponseDTO(" +
+            "t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.createdAt, t.completedAt, " +
+            "u.id, p.id, c.id, " +
+            "CAST((SELECT COUNT(s) FROM Task s WHERE s.parentTask.id = t.id) AS Integer), " +
+            "CASE WHEN u.id = :userId THEN edu.juanoff.taskmanager.entity.AccessLevel.OWNER ELSE ta.accessLevel END, " +
+            "u.username) " +
+            "FROM Task t " +
+            "JOIN t.user u " +
+            "LEFT JOIN t.parentTask p " +
+            "LEFT JOIN t.category c " +
+            "LEFT JOIN t.sharedWith ta ON ta.user.id = :userId " +
+            "WHERE ((u.id = :userId AND p.id IS NULL) OR ta.id IS NOT NULL) ";
+
+    String TASK_PAGE_ORDER = "ORDER BY t.dueDate ASC NULLS LAST, t.id ASC";
+
     @Query("SELECT DISTINCT t FROM Task t " +
             "LEFT JOIN t.sharedWith ta " +
             "WHERE t.user.id = :userId OR ta.user.id = :userId")
@@ -22,6 +50,20 @@ public interface TaskRepository extends CrudRepository<Task, Long>, JpaSpecifica
 
     Optional<Task> findByIdAndUserId(Long taskId, Long userId);
 
+    //! Курсор только для чтения по задачам верхнего уровня диапазона пользователей (пересчет достижений)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new edu.juanoff.taskmanager.dto.task.TaskAchievementFactDTO(" +
+            "t.user.id, t.status, t.priority, CASE WHEN t.category IS NULL THEN false ELSE true END, " +
+            "t.dueDate, t.createdAt, t.completedAt) " +
+            "FROM Task t " +
+            "WHERE t.parentTask IS NULL AND t.user.id > :afterUserId AND t.user.id <= :toUserId " +
+            "ORDER BY t.user.id")
+    Stream<TaskAchievementFactDTO> streamAchievementFactsForUserRange(@Param("afterUserId") long afterUserId,
+                                                                       @Param("toUserId") long toUserId);
+
     List<Task> findByUserId(Long userId);
 
     boolean existsByIdAndUserId(Long taskId, Long userId);
@@ -44,16 +86,142 @@ public interface TaskRepository extends CrudRepository<Task, Long>, JpaSpecifica
                                             @Param("startThreshold") LocalDateTime startThreshold,
                                             @Param("endThreshold") LocalDateTime endThreshold);
 
-    @Query("SELECT t FROM Task t WHERE t.dueDate BETWEEN :start AND :end AND t.notified = false AND t.completedAt IS NULL")
-    List<Task> findByDueDateBetweenAndNotifiedFalse(
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end
+    @Query("SELECT t.id FROM Task t " +
+            "WHERE t.user.id = :userId " +
+            "AND t.completedAt IS NULL " +
+            "AND t.notified = false " +
+            "AND t.dueDate BETWEEN :startThreshold AND :endThreshold")
+    List<Long> findNotNotifiedUpcomingTaskIds(@Param("userId") Long userId,
+                                              @Param("startThreshold") LocalDateTime startThreshold,
+                                              @Param("endThreshold") LocalDateTime endThreshold);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.notified = true WHERE t.id IN :taskIds AND t.notified = false")
+    int markNotifiedByIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT t FROM Task t WHERE t.dueDate > :now AND t.completedAt IS NULL " +
+            "AND (t.user.id = :userId " +
+            "OR EXISTS (SELECT ta.id FROM TaskAccess ta WHERE ta.task = t AND ta.user.id = :userId))")
+    List<Task> findReminderCandidatesForUser(
+            @Param("userId") Long userId,
+            @Param("now") LocalDateTime now
+    );
+
+    @Query("SELECT t.id FROM Task t WHERE t.id > :afterId AND t.dueDate > :now AND t.completedAt IS NULL " +
+            "AND NOT EXISTS (SELECT r.id FROM TaskReminder r WHERE r.task = t) ORDER BY t.id")
+    List<Long> findReminderCandidateIdsWithoutReminders(@Param("now") LocalDateTime now,
+                                                        @Param("afterId") Long afterId,
+                                                        Pageable pageable);
+
+    @Query("SELECT t FROM Task t JOIN FETCH t.user u LEFT JOIN FETCH u.settings " +
+            "WHERE t.id IN :taskIds AND t.dueDate > :now AND t.completedAt IS NULL")
+    List<Task> findReminderCandidatesByIdIn(
+            @Param("taskIds") Collection<Long> taskIds,
+            @Param("now") LocalDateTime now
     );
 
     @Query("select t from Task t join fetch t.user where t.id = :taskId")
     Optional<Task> findTaskWithUserById(@Param("taskId") Long taskId);
 
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.subtasks WHERE t.id IN :taskIds")
+    List<Task> findAllWithSubtasksByIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT t FROM Task t JOIN FETCH t.user WHERE t.id IN :taskIds")
+    List<Task> findAllWithUserByIdIn(@Param("taskIds") Collection<Long> taskIds);
+
     Optional<Task> findByGoogleEventId(String googleEventId);
 
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
     List<Task> findByUserIdAndDueDateNotNull(Long userId);
+
+    //! Задачи, измененные после последней выгрузки в Google Calendar
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.dueDate IS NOT NULL " +
+            "AND (t.lastSyncedAt IS NULL OR t.updatedAt > t.lastSyncedAt)")
+    List<Task> findTasksToPushByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT t.googleEventId FROM Task t WHERE t.googleEventId IN :eventIds")
+    Set<String> findLinkedGoogleEventIds(@Param("eventIds") Collection<String> eventIds);
+
+    //! Связь снимается, только если задача все еще указывает на событие из этой синхронизации
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.googleEventId = NULL, t.calendarId = NULL, t.lastSyncedAt = NULL " +
+            "WHERE EXISTS (SELECT i.id FROM SyncHistoryItem i WHERE i.syncHistory.id = :syncId " +
+            "AND i.operation = :operation AND i.taskId = t.id AND i.eventId = t.googleEventId)")
+    int clearSyncMetadataBySyncId(
+            @Param("syncId") Long syncId,
+            @Param("operation") SyncHistoryItem.Operation operation
+    );
+
+    //! Задача, все уровни ее подзадач (рекурсивный CTE) и уровень доступа текущего пользователя одним запросом
+    @Query("WITH tree AS (" +
+            "SELECT r.id AS id FROM Task r WHERE r.id = :taskId " +
+            "UNION ALL " +
+            "SELECT s.id AS id FROM Task s JOIN tree parent ON s.parentTask.id = parent.id" +
+            ") " +
+            "SELECT new edu.juanoff.taskmanager.dto.task.TaskTreeRowDTO(" +
+            "t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.createdAt, t.completedAt, " +
+            "u.id, p.id, c.id, ta.accessLevel) " +
+            "FROM Task t " +
+            "JOIN t.user u " +
+            "LEFT JOIN t.parentTask p " +
+            "LEFT JOIN t.category c " +
+            "LEFT JOIN TaskAccess ta ON ta.task.id = :taskId AND ta.user.id = :userId " +
+            "WHERE t.id IN (SELECT tr.id FROM tree tr) " +
+            "ORDER BY t.id ASC")
+    List<TaskTreeRowDTO> findTaskTreeRows(@Param("taskId") Long taskId, @Param("userId") Long userId);
+
+    //! Область видимости (владелец или task_access) и фильтры применяются до ранжирования и пагинации
+    @Query(value = "SELECT CAST(t.id AS BIGINT) FROM tasks t " +
+            "CROSS JOIN to_tsquery('simple', :tsQuery) q " +
+            "LEFT JOIN task_access ta ON ta.task_id = t.id AND ta.user_id = :userId " +
+            "WHERE t.parent_task_id IS NULL AND t.search_vector @@ q " +
+            "AND (t.user_id = :userId OR ta.id IS NOT NULL) " +
+            "AND (CAST(:status AS VARCHAR) IS NULL OR t.status = CAST(:status AS VARCHAR)) " +
+            "AND (CAST(:priority AS VARCHAR) IS NULL OR t.priority = CAST(:priority AS VARCHAR)) " +
+            "AND (CAST(:categoryId AS BIGINT) IS NULL OR t.category_id = CAST(:categoryId AS BIGINT)) " +
+            "AND (CAST(:accessLevel AS VARCHAR) IS NULL " +
+            "OR (CAST(:accessLevel AS VARCHAR) = 'OWNER' AND t.user_id = :userId) " +
+            "OR ta.access_level = CAST(:accessLevel AS VARCHAR)) " +
+            "AND (CAST(:dueFrom AS TIMESTAMP) IS NULL OR t.due_date >= CAST(:dueFrom AS TIMESTAMP)) " +
+            "AND (CAST(:dueTo AS TIMESTAMP) IS NULL OR t.due_date < CAST(:dueTo AS TIMESTAMP)) " +
+            "AND (:noDueDate = FALSE OR t.due_date IS NULL) " +
+            "ORDER BY ts_rank(t.search_vector, q) DESC, t.id ASC " +
+            "LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<Long> findRankedIdsByFullText(
+            @Param("tsQuery") String tsQuery,
+            @Param("userId") Long userId,
+            @Param("status") String status,
+            @Param("priority") String priority,
+            @Param("categoryId") Long categoryId,
+            @Param("accessLevel") String accessLevel,
+            @Param("dueFrom") LocalDateTime dueFrom,
+            @Param("dueTo") LocalDateTime dueTo,
+            @Param("noDueDate") boolean noDueDate,
+            @Param("offset") int offset,
+            @Param("limit") int limit
+    );
+
+    @Query(TASK_PAGE_SELECT + TASK_PAGE_ORDER)
+    List<TaskResponseDTO> findTaskPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(TASK_PAGE_SELECT +
+            "AND (t.dueDate > :afterDueDate " +
+            "OR (t.dueDate = :afterDueDate AND t.id > :afterId) " +
+            "OR t.dueDate IS NULL) " +
+            TASK_PAGE_ORDER)
+    List<TaskResponseDTO> findTaskPageAfterDueDate(@Param("userId") Long userId,
+                                                   @Param("afterDueDate") LocalDateTime afterDueDate,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    @Query(TASK_PAGE_SELECT +
+            "AND t.dueDate IS NULL AND t.id > :afterId " +
+            TASK_PAGE_ORDER)
+    List<TaskResponseDTO> findTaskPageAfterNoDueDate(@Param("userId") Long userId,
+                                                     @Param("afterId") Long afterId,
+                                                     Pageable pageable);
 }
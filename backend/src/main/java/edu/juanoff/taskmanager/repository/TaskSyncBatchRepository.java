@@ -0,0 +1,56 @@
+package edu.juanoff.taskmanager.repository;
+
+import edu.juanoff.taskmanager.entity.SyncHistoryItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+//! Метаданные синхронизации с Google Calendar пишутся одним JDBC batch после пакета запросов к API
+@Repository
+@RequiredArgsConstructor
+public class TaskSyncBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    //! created: событие создано этой синхронизацией, а не обновлено
+    public record TaskSyncUpdate(Long taskId, String googleEventId, String calendarId, boolean created) {
+    }
+
+    @Transactional
+    public void updateSyncMetadata(List<TaskSyncUpdate> updates, LocalDateTime syncedAt) {
+        Timestamp timestamp = Timestamp.valueOf(syncedAt);
+        jdbcTemplate.batchUpdate(
+                "UPDATE tasks SET google_event_id = ?, calendar_id = ?, last_synced_at = ? WHERE id = ?",
+                updates,
+                updates.size(),
+                (ps, update) -> {
+                    ps.setString(1, update.googleEventId());
+                    ps.setString(2, update.calendarId());
+                    ps.setTimestamp(3, timestamp);
+                    ps.setLong(4, update.taskId());
+                }
+        );
+    }
+
+    @Transactional
+    public void insertHistoryItems(Long syncId, List<TaskSyncUpdate> updates) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO sync_history_items (sync_id, task_id, event_id, operation) VALUES (?, ?, ?, ?)",
+                updates,
+                updates.size(),
+                (ps, update) -> {
+                    ps.setLong(1, syncId);
+                    ps.setLong(2, update.taskId());
+                    ps.setString(3, update.googleEventId());
+                    ps.setString(4, (update.created()
+                            ? SyncHistoryItem.Operation.CREATED
+                            : SyncHistoryItem.Operation.UPDATED).name());
+                }
+        );
+    }
+}
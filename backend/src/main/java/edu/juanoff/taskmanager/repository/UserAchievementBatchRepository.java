@@ -0,0 +1,85 @@
+package edu.juanoff.taskmanager.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+//! Массовые операции над user_achievements без загрузки сущностей в контекст Hibernate.
+//! Вставки идемпотентны за счет uk_user_achievements_user_achievement (changeset 030).
+@Repository
+@RequiredArgsConstructor
+public class UserAchievementBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    //! Запись применяется, только если строку не изменили после ее чтения: другой узел,
+    //! обработавший события того же пользователя, или пересчет прогресса
+    public record ProgressCorrection(Long id, int expectedProgress, boolean expectedCompleted,
+                                     int progress, boolean completed) {
+    }
+
+    //! Возвращает id примененных строк; остальные изменились после чтения
+    @Transactional
+    public Set<Long> updateProgressIfUnchanged(List<ProgressCorrection> corrections) {
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE user_achievements SET progress = ?, completed = ? " +
+                        "WHERE id = ? AND progress = ? AND completed = ?",
+                corrections,
+                corrections.size(),
+                (ps, correction) -> {
+                    ps.setInt(1, correction.progress());
+                    ps.setBoolean(2, correction.completed());
+                    ps.setLong(3, correction.id());
+                    ps.setInt(4, correction.expectedProgress());
+                    ps.setBoolean(5, correction.expectedCompleted());
+                }
+        );
+
+        int[] flat = Arrays.stream(counts).flatMapToInt(Arrays::stream).toArray();
+        Set<Long> applied = new HashSet<>();
+        for (int i = 0; i < flat.length; i++) {
+            if (flat[i] > 0) {
+                applied.add(corrections.get(i).id());
+            }
+        }
+        return applied;
+    }
+
+    @Transactional
+    public int correctProgress(List<ProgressCorrection> corrections) {
+        return updateProgressIfUnchanged(corrections).size();
+    }
+
+    public int insertAllAchievementsForUser(Long userId) {
+        return jdbcTemplate.update(
+                "INSERT INTO user_achievements (user_id, achievement_id, progress, completed) " +
+                        "SELECT ?, a.id, 0, false FROM achievements a " +
+                        "ON CONFLICT DO NOTHING",
+                userId
+        );
+    }
+
+    public int insertAchievementForUserRange(Long achievementId, long afterUserId, long toUserId) {
+        return jdbcTemplate.update(
+                "INSERT INTO user_achievements (user_id, achievement_id, progress, completed) " +
+                        "SELECT u.id, ?, 0, false FROM users u WHERE u.id > ? AND u.id <= ? " +
+                        "ON CONFLICT DO NOTHING",
+                achievementId, afterUserId, toUserId
+        );
+    }
+
+    //! Верхняя граница следующей порции из chunkSize пользователей (keyset по id), null если порций больше нет
+    public Long findUserChunkUpperBound(long afterUserId, int chunkSize) {
+        return jdbcTemplate.queryForObject(
+                "SELECT MAX(chunk.id) FROM (SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?) chunk",
+                Long.class,
+                afterUserId, chunkSize
+        );
+    }
+}
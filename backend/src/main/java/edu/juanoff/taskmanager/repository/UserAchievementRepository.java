@@ -1,7 +1,10 @@
 package edu.juanoff.taskmanager.repository;
 
+import edu.juanoff.taskmanager.dto.achievement.UserAchievementProgressDTO;
 import edu.juanoff.taskmanager.entity.UserAchievement;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +12,17 @@ import java.util.List;
 @Repository
 public interface UserAchievementRepository extends CrudRepository<UserAchievement, Long> {
     List<UserAchievement> findByUserId(Long userId);
+
+    @Query("SELECT ua FROM UserAchievement ua " +
+            "JOIN FETCH ua.achievement " +
+            "JOIN FETCH ua.user " +
+            "WHERE ua.user.id = :userId AND ua.completed = false")
+    List<UserAchievement> findIncompleteWithAchievementAndUserByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new edu.juanoff.taskmanager.dto.achievement.UserAchievementProgressDTO(" +
+            "ua.id, ua.user.id, a.name, a.targetValue, ua.progress, ua.completed) " +
+            "FROM UserAchievement ua JOIN ua.achievement a " +
+            "WHERE ua.user.id > :afterUserId AND ua.user.id <= :toUserId")
+    List<UserAchievementProgressDTO> findProgressForUserRange(@Param("afterUserId") long afterUserId,
+                                                              @Param("toUserId") long toUserId);
 }
@@ -19,11 +19,5 @@ public interface UserRepository extends CrudRepository<User, Long> {
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.settings")
     List<User> findAllWithSettings();
 
-    @Query(value = "SELECT COALESCE(MAX(CAST(notification_settings::json->>'taskNotificationInterval' AS INTEGER)), 1440) " +
-            "FROM user_settings " +
-            "WHERE (notification_settings::json->>'taskEnabled') = 'true'",
-            nativeQuery = true)
-    Long findMaxTaskNotificationInterval();
-
     List<User> findByUsernameContainingIgnoreCase(String username);
 }
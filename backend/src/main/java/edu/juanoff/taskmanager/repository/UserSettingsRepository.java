@@ -1,7 +1,10 @@
 package edu.juanoff.taskmanager.repository;
 
+import edu.juanoff.taskmanager.entity.NotificationSettings;
 import edu.juanoff.taskmanager.entity.UserSettings;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +12,7 @@ import java.util.Optional;
 @Repository
 public interface UserSettingsRepository extends JpaRepository<UserSettings, Long> {
     Optional<UserSettings> findByUserId(Long userId);
+
+    @Query("SELECT s.notificationSettings FROM UserSettings s WHERE s.user.id = :userId")
+    Optional<NotificationSettings> findNotificationSettingsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,192 @@
+package edu.juanoff.taskmanager.scheduler;
+
+import edu.juanoff.taskmanager.dto.notification.TaskReminderDTO;
+import edu.juanoff.taskmanager.event.NotificationSettingsUpdatedEvent;
+import edu.juanoff.taskmanager.event.TaskScheduleChangedEvent;
+import edu.juanoff.taskmanager.repository.TaskReminderRepository;
+import edu.juanoff.taskmanager.service.NotificationProcessingService;
+import edu.juanoff.taskmanager.util.AsyncExecutorNames;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+//! Напоминания о дедлайнах срабатывают точно в момент notify_at из task_reminders.
+//! Из БД заранее подгружается окно на reload-rate вперед, дальше очередь поддерживается событиями.
+@Service
+@Slf4j
+public class DeadlineReminderEngine {
+
+    private final TaskReminderRepository taskReminderRepository;
+    private final NotificationProcessingService notificationProcessingService;
+    private final Executor notificationExecutor;
+    private final long reloadRateMillis;
+    private final long rejectedRetryMillis;
+
+    //! ScheduledThreadPoolExecutor держит задачи в приоритетной очереди по времени срабатывания
+    private final ScheduledThreadPoolExecutor timer;
+
+    private final Map<Long, Map<Long, ScheduledReminder>> remindersByTask = new HashMap<>();
+    private LocalDateTime loadedUntil = LocalDateTime.now();
+
+    public DeadlineReminderEngine(
+            TaskReminderRepository taskReminderRepository,
+            NotificationProcessingService notificationProcessingService,
+            @Qualifier(AsyncExecutorNames.NOTIFICATION) Executor notificationExecutor,
+            @Value("${scheduler.notification.reload-rate:3600000}") long reloadRateMillis,
+            @Value("${scheduler.notification.rejected-retry-ms:1000}") long rejectedRetryMillis
+    ) {
+        if (rejectedRetryMillis <= 0) {
+            throw new IllegalArgumentException("rejectedRetryMillis must be greater than 0");
+        }
+
+        this.taskReminderRepository = taskReminderRepository;
+        this.notificationProcessingService = notificationProcessingService;
+        this.notificationExecutor = notificationExecutor;
+        this.reloadRateMillis = reloadRateMillis;
+        this.rejectedRetryMillis = rejectedRetryMillis;
+
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "DeadlineReminder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    private record ScheduledReminder(Long reminderId, LocalDateTime notifyAt, ScheduledFuture<?> future) {
+    }
+
+    @Transactional(readOnly = true)
+    @Scheduled(fixedRateString = "${scheduler.notification.reload-rate:3600000}")
+    public void reloadWindow() {
+        LocalDateTime horizon = LocalDateTime.now().plus(Duration.ofMillis(reloadRateMillis));
+        synchronized (this) {
+            loadedUntil = horizon;
+        }
+
+        List<TaskReminderDTO> reminders = taskReminderRepository.findPendingUntil(horizon);
+        reminders.forEach(this::schedule);
+        log.info("Deadline reminders loaded until {}: {} pending", horizon, reminders.size());
+    }
+
+    @Async(AsyncExecutorNames.NOTIFICATION)
+    @Transactional(readOnly = true)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTaskScheduleChanged(TaskScheduleChangedEvent event) {
+        event.taskIds().forEach(this::cancelTask);
+        taskReminderRepository.findPendingUntilByTaskIdIn(currentHorizon(), event.taskIds())
+                .forEach(this::schedule);
+    }
+
+    @Async(AsyncExecutorNames.NOTIFICATION)
+    @Transactional(readOnly = true)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleNotificationSettingsUpdated(NotificationSettingsUpdatedEvent event) {
+        cancelUser(event.userId());
+        taskReminderRepository.findPendingUntilByUserId(currentHorizon(), event.userId())
+                .forEach(this::schedule);
+    }
+
+    private synchronized LocalDateTime currentHorizon() {
+        return loadedUntil;
+    }
+
+    private synchronized void schedule(TaskReminderDTO reminder) {
+        Map<Long, ScheduledReminder> taskReminders = remindersByTask.computeIfAbsent(reminder.taskId(), id -> new HashMap<>());
+        ScheduledReminder existing = taskReminders.get(reminder.userId());
+        if (existing != null) {
+            if (existing.reminderId().equals(reminder.id()) && existing.notifyAt().equals(reminder.notifyAt())) {
+                return;
+            }
+            existing.future().cancel(false);
+        }
+
+        long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), reminder.notifyAt()).toMillis());
+        ScheduledFuture<?> future = timer.schedule(() -> fire(reminder), delayMillis, TimeUnit.MILLISECONDS);
+        taskReminders.put(reminder.userId(), new ScheduledReminder(reminder.id(), reminder.notifyAt(), future));
+    }
+
+    //! Запись убирается из очереди только после успешной передачи в пул уведомлений
+    private void fire(TaskReminderDTO reminder) {
+        ScheduledReminder scheduled;
+        synchronized (this) {
+            Map<Long, ScheduledReminder> taskReminders = remindersByTask.get(reminder.taskId());
+            scheduled = taskReminders != null ? taskReminders.get(reminder.userId()) : null;
+            if (scheduled == null || !scheduled.reminderId().equals(reminder.id())) {
+                return;
+            }
+        }
+
+        try {
+            notificationExecutor.execute(() -> notificationProcessingService.processReminder(reminder.id()));
+        } catch (RejectedExecutionException e) {
+            retryLater(reminder, scheduled);
+            return;
+        }
+
+        synchronized (this) {
+            Map<Long, ScheduledReminder> taskReminders = remindersByTask.get(reminder.taskId());
+            if (taskReminders != null && taskReminders.remove(reminder.userId(), scheduled) && taskReminders.isEmpty()) {
+                remindersByTask.remove(reminder.taskId());
+            }
+        }
+    }
+
+    //! Пул переполнен: повторяем позже. При остановке запись останется в БД неотправленной
+    //! и будет загружена при следующем старте
+    private synchronized void retryLater(TaskReminderDTO reminder, ScheduledReminder scheduled) {
+        Map<Long, ScheduledReminder> taskReminders = remindersByTask.get(reminder.taskId());
+        if (taskReminders == null || taskReminders.get(reminder.userId()) != scheduled || timer.isShutdown()) {
+            return;
+        }
+
+        log.warn("Notification executor rejected reminder {}, retrying in {} ms", reminder.id(), rejectedRetryMillis);
+        ScheduledFuture<?> future = timer.schedule(() -> fire(reminder), rejectedRetryMillis, TimeUnit.MILLISECONDS);
+        taskReminders.put(reminder.userId(), new ScheduledReminder(scheduled.reminderId(), scheduled.notifyAt(), future));
+    }
+
+    private synchronized void cancelTask(Long taskId) {
+        Map<Long, ScheduledReminder> taskReminders = remindersByTask.remove(taskId);
+        if (taskReminders != null) {
+            taskReminders.values().forEach(reminder -> reminder.future().cancel(false));
+        }
+    }
+
+    private synchronized void cancelUser(Long userId) {
+        Iterator<Map<Long, ScheduledReminder>> iterator = remindersByTask.values().iterator();
+        while (iterator.hasNext()) {
+            Map<Long, ScheduledReminder> taskReminders = iterator.next();
+            ScheduledReminder reminder = taskReminders.remove(userId);
+            if (reminder != null) {
+                reminder.future().cancel(false);
+            }
+            if (taskReminders.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
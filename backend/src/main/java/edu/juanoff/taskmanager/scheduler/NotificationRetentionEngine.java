@@ -0,0 +1,157 @@
+package edu.juanoff.taskmanager.scheduler;
+
+import edu.juanoff.taskmanager.dto.notification.NotificationPurgeCandidateDTO;
+import edu.juanoff.taskmanager.entity.Notification;
+import edu.juanoff.taskmanager.repository.NotificationPartitionRepository;
+import edu.juanoff.taskmanager.repository.NotificationRepository;
+import edu.juanoff.taskmanager.service.NotificationCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//! Удаляет уведомления старше срока хранения небольшими порциями, каждая в своей транзакции,
+//! с паузой между порциями, чтобы не держать блокировки и не раздувать WAL одной транзакцией.
+//! При секционировании по месяцам целиком устаревшие секции удаляются через DROP.
+@Service
+@Slf4j
+public class NotificationRetentionEngine {
+
+    private static final String MAX_AGE_PROPERTY = "notification.retention.max-age.";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationPartitionRepository notificationPartitionRepository;
+    private final NotificationCounterService notificationCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration closedAge;
+    private final Map<Notification.Type, Duration> maxAgeByType;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final boolean partitioned;
+
+    public NotificationRetentionEngine(
+            NotificationRepository notificationRepository,
+            NotificationPartitionRepository notificationPartitionRepository,
+            NotificationCounterService notificationCounterService,
+            TransactionTemplate transactionTemplate,
+            Environment environment,
+            @Value("${notification.retention.closed-age:2d}") Duration closedAge,
+            @Value("${notification.retention.batch-size:1000}") int batchSize,
+            @Value("${notification.retention.pause-ms:200}") long pauseMillis,
+            @Value("${notification.retention.partitioned:false}") boolean partitioned
+    ) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be greater than 0");
+        }
+
+        this.notificationRepository = notificationRepository;
+        this.notificationPartitionRepository = notificationPartitionRepository;
+        this.notificationCounterService = notificationCounterService;
+        this.transactionTemplate = transactionTemplate;
+        this.closedAge = closedAge;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.partitioned = partitioned;
+
+        //! notification.retention.max-age.task-deadline=30d и т.д., иначе max-age.default
+        Duration defaultAge = environment.getProperty(MAX_AGE_PROPERTY + "default", Duration.class, Duration.ofDays(90));
+        this.maxAgeByType = new EnumMap<>(Notification.Type.class);
+        for (Notification.Type type : Notification.Type.values()) {
+            String key = MAX_AGE_PROPERTY + type.name().toLowerCase().replace('_', '-');
+            maxAgeByType.put(type, environment.getProperty(key, Duration.class, defaultAge));
+        }
+    }
+
+    @Scheduled(cron = "${notification.retention.cron:0 0 3 * * *}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        if (partitioned) {
+            maintainPartitions(now);
+        }
+
+        int deleted = purgeInChunks(pageable ->
+                notificationRepository.findClosedPurgeCandidates(now.minus(closedAge), pageable));
+        for (Map.Entry<Notification.Type, Duration> entry : maxAgeByType.entrySet()) {
+            deleted += purgeInChunks(pageable -> notificationRepository.findPurgeCandidatesByType(
+                    entry.getKey(), now.minus(entry.getValue()), pageable));
+        }
+        log.info("Notification retention: {} notifications deleted", deleted);
+    }
+
+    private int purgeInChunks(Function<Pageable, List<NotificationPurgeCandidateDTO>> candidates) {
+        Pageable chunk = PageRequest.ofSize(batchSize);
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> deleteChunk(candidates.apply(chunk)));
+            total += deleted != null ? deleted : 0;
+            if (deleted == null || deleted < batchSize || !pause()) {
+                return total;
+            }
+        }
+    }
+
+    private int deleteChunk(List<NotificationPurgeCandidateDTO> candidates) {
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        notificationRepository.deleteAllByIdIn(candidates.stream().map(NotificationPurgeCandidateDTO::id).toList());
+
+        //! Незакрытые уведомления учтены в счетчиках, их вычитаем одной дельтой на пользователя
+        candidates.stream()
+                .filter(candidate -> !candidate.isClosed())
+                .collect(Collectors.groupingBy(NotificationPurgeCandidateDTO::userId))
+                .forEach((userId, open) -> notificationCounterService.applyDelta(
+                        userId,
+                        -(int) open.stream().filter(candidate -> !candidate.isRead()).count(),
+                        -open.size()
+                ));
+        return candidates.size();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Notification retention interrupted");
+            return false;
+        }
+    }
+
+    //! Секция удаляется, только когда в ней не осталось строк моложе самого длинного срока хранения
+    private void maintainPartitions(LocalDateTime now) {
+        YearMonth current = YearMonth.from(now);
+        notificationPartitionRepository.createMonthlyPartition(current);
+        notificationPartitionRepository.createMonthlyPartition(current.plusMonths(1));
+
+        Duration longestAge = maxAgeByType.values().stream()
+                .reduce(closedAge, (left, right) -> left.compareTo(right) >= 0 ? left : right);
+        LocalDateTime cutoff = now.minus(longestAge);
+
+        for (YearMonth month : notificationPartitionRepository.findMonthlyPartitions()) {
+            if (month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> userIds = notificationPartitionRepository.findUserIdsWithOpenNotifications(month);
+                notificationPartitionRepository.dropMonthlyPartition(month);
+                userIds.forEach(notificationCounterService::recount);
+            });
+            log.info("Notification partition for {} dropped", month);
+        }
+    }
+}
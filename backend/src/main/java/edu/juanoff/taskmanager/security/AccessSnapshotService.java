@@ -0,0 +1,107 @@
+package edu.juanoff.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import edu.juanoff.taskmanager.entity.AccessLevel;
+import edu.juanoff.taskmanager.entity.TaskAccess;
+import edu.juanoff.taskmanager.event.*;
+import edu.juanoff.taskmanager.repository.TaskAccessRepository;
+import edu.juanoff.taskmanager.repository.TaskRepository;
+import edu.juanoff.taskmanager.util.CacheNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+
+//! Снимок прав загружается один раз на пользователя и дальше поддерживается событиями.
+//! Загрузка идет через Cache.get, поэтому computeIfPresent из обработчиков событий
+//! дожидается ее окончания и применяет изменение поверх.
+@Service
+@Slf4j
+public class AccessSnapshotService {
+
+    private final TaskRepository taskRepository;
+    private final TaskAccessRepository taskAccessRepository;
+    private final Cache<Long, UserAccessSnapshot> snapshots;
+
+    @SuppressWarnings("unchecked")
+    public AccessSnapshotService(
+            TaskRepository taskRepository,
+            TaskAccessRepository taskAccessRepository,
+            CacheManager cacheManager
+    ) {
+        this.taskRepository = taskRepository;
+        this.taskAccessRepository = taskAccessRepository;
+        this.snapshots = (Cache<Long, UserAccessSnapshot>) cacheManager
+                .getCache(CacheNames.ACCESS_SNAPSHOT)
+                .getNativeCache();
+    }
+
+    @Transactional(readOnly = true)
+    public UserAccessSnapshot getSnapshot(Long userId) {
+        return snapshots.get(userId, this::loadSnapshot);
+    }
+
+    public boolean isOwner(Long taskId, Long userId) {
+        return getSnapshot(userId).isOwner(taskId);
+    }
+
+    public boolean hasSharedAccess(Long taskId, Long userId) {
+        return getSnapshot(userId).getSharedLevel(taskId) != null;
+    }
+
+    public AccessLevel getAccessLevel(Long taskId, Long userId) {
+        return getSnapshot(userId).getAccessLevel(taskId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleOwnershipChanged(TaskOwnershipChangedEvent event) {
+        snapshots.asMap().computeIfPresent(event.ownerId(), (id, snapshot) -> snapshot.withOwned(event.taskId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleAccessGranted(TaskAccessGrantedEvent event) {
+        applyShared(event.taskAccess());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleAccessLevelChanged(AccessLevelChangedEvent event) {
+        applyShared(event.taskAccess());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleAccessRemoved(AccessLevelRemovedEvent event) {
+        TaskAccess access = event.taskAccess();
+        snapshots.asMap().computeIfPresent(access.getUser().getId(),
+                (id, snapshot) -> snapshot.withoutShared(access.getTask().getId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTaskDeleted(TaskDeletedEvent event) {
+        Set<Long> taskIds = Set.copyOf(event.taskIds());
+        event.affectedUserIds().forEach(userId -> snapshots.asMap()
+                .computeIfPresent(userId, (id, snapshot) -> snapshot.withoutTasks(taskIds)));
+    }
+
+    //! Для массовых изменений (импорт из календаря) дешевле перечитать снимок, чем применять задачи по одной
+    public void evict(Long userId) {
+        snapshots.invalidate(userId);
+    }
+
+    private void applyShared(TaskAccess access) {
+        snapshots.asMap().computeIfPresent(access.getUser().getId(),
+                (id, snapshot) -> snapshot.withShared(access.getTask().getId(), access.getAccessLevel()));
+    }
+
+    private UserAccessSnapshot loadSnapshot(Long userId) {
+        UserAccessSnapshot snapshot = UserAccessSnapshot.of(
+                taskRepository.findIdsByUserId(userId),
+                taskAccessRepository.findAccessLevelsByUserId(userId)
+        );
+        log.debug("Access snapshot loaded for user {}", userId);
+        return snapshot;
+    }
+}
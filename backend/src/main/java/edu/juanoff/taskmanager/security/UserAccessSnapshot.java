@@ -0,0 +1,115 @@
+package edu.juanoff.taskmanager.security;
+
+import edu.juanoff.taskmanager.dto.access.TaskAccessLevelDTO;
+import edu.juanoff.taskmanager.entity.AccessLevel;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+//! Неизменяемый снимок прав пользователя: отсортированные массивы long и бинарный поиск.
+//! Изменения создают новый снимок (copy-on-write), чтобы чтение не требовало блокировок.
+public final class UserAccessSnapshot {
+
+    private static final AccessLevel[] NO_LEVELS = new AccessLevel[0];
+
+    private final long[] ownedTaskIds;
+    private final long[] sharedTaskIds;
+    private final AccessLevel[] sharedLevels;
+
+    private UserAccessSnapshot(long[] ownedTaskIds, long[] sharedTaskIds, AccessLevel[] sharedLevels) {
+        this.ownedTaskIds = ownedTaskIds;
+        this.sharedTaskIds = sharedTaskIds;
+        this.sharedLevels = sharedLevels;
+    }
+
+    public static UserAccessSnapshot of(Collection<Long> ownedTaskIds, Collection<TaskAccessLevelDTO> sharedAccesses) {
+        long[] owned = ownedTaskIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+
+        List<TaskAccessLevelDTO> sorted = sharedAccesses.stream()
+                .sorted(Comparator.comparing(TaskAccessLevelDTO::taskId))
+                .toList();
+        long[] shared = new long[sorted.size()];
+        AccessLevel[] levels = sorted.isEmpty() ? NO_LEVELS : new AccessLevel[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            shared[i] = sorted.get(i).taskId();
+            levels[i] = sorted.get(i).accessLevel();
+        }
+        return new UserAccessSnapshot(owned, shared, levels);
+    }
+
+    public boolean isOwner(long taskId) {
+        return Arrays.binarySearch(ownedTaskIds, taskId) >= 0;
+    }
+
+    public AccessLevel getSharedLevel(long taskId) {
+        int index = Arrays.binarySearch(sharedTaskIds, taskId);
+        return index >= 0 ? sharedLevels[index] : null;
+    }
+
+    //! OWNER для своих задач, уровень доступа для расшаренных, иначе null
+    public AccessLevel getAccessLevel(long taskId) {
+        return isOwner(taskId) ? AccessLevel.OWNER : getSharedLevel(taskId);
+    }
+
+    public UserAccessSnapshot withOwned(long taskId) {
+        int index = Arrays.binarySearch(ownedTaskIds, taskId);
+        if (index >= 0) {
+            return this;
+        }
+        return new UserAccessSnapshot(insert(ownedTaskIds, -index - 1, taskId), sharedTaskIds, sharedLevels);
+    }
+
+    public UserAccessSnapshot withShared(long taskId, AccessLevel accessLevel) {
+        int index = Arrays.binarySearch(sharedTaskIds, taskId);
+        if (index >= 0) {
+            if (sharedLevels[index] == accessLevel) {
+                return this;
+            }
+            AccessLevel[] levels = sharedLevels.clone();
+            levels[index] = accessLevel;
+            return new UserAccessSnapshot(ownedTaskIds, sharedTaskIds, levels);
+        }
+
+        int position = -index - 1;
+        AccessLevel[] levels = new AccessLevel[sharedLevels.length + 1];
+        System.arraycopy(sharedLevels, 0, levels, 0, position);
+        levels[position] = accessLevel;
+        System.arraycopy(sharedLevels, position, levels, position + 1, sharedLevels.length - position);
+        return new UserAccessSnapshot(ownedTaskIds, insert(sharedTaskIds, position, taskId), levels);
+    }
+
+    public UserAccessSnapshot withoutShared(long taskId) {
+        return withoutTasks(Set.of(taskId));
+    }
+
+    public UserAccessSnapshot withoutTasks(Set<Long> taskIds) {
+        long[] owned = Arrays.stream(ownedTaskIds).filter(id -> !taskIds.contains(id)).toArray();
+
+        int kept = 0;
+        long[] shared = new long[sharedTaskIds.length];
+        AccessLevel[] levels = new AccessLevel[sharedTaskIds.length];
+        for (int i = 0; i < sharedTaskIds.length; i++) {
+            if (!taskIds.contains(sharedTaskIds[i])) {
+                shared[kept] = sharedTaskIds[i];
+                levels[kept] = sharedLevels[i];
+                kept++;
+            }
+        }
+
+        if (owned.length == ownedTaskIds.length && kept == sharedTaskIds.length) {
+            return this;
+        }
+        return new UserAccessSnapshot(owned, Arrays.copyOf(shared, kept), Arrays.copyOf(levels, kept));
+    }
+
+    private static long[] insert(long[] source, int position, long value) {
+        long[] result = new long[source.length + 1];
+        System.arraycopy(source, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(source, position, result, position + 1, source.length - position);
+        return result;
+    }
+}
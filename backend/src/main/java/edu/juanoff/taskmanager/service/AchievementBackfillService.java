@@ -0,0 +1,148 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.dto.achievement.AchievementBackfillProgressDTO;
+import edu.juanoff.taskmanager.dto.achievement.AchievementBackfillProgressDTO.Status;
+import edu.juanoff.taskmanager.event.AchievementCreatedEvent;
+import edu.juanoff.taskmanager.event.UserCreatedEvent;
+import edu.juanoff.taskmanager.repository.AchievementRepository;
+import edu.juanoff.taskmanager.repository.UserAchievementBatchRepository;
+import edu.juanoff.taskmanager.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+//! Строки user_achievements для нового достижения создаются INSERT ... SELECT порциями по id пользователей,
+//! каждая порция в своей транзакции, в отдельном потоке после коммита. Повторный запуск безопасен.
+@Service
+@Slf4j
+public class AchievementBackfillService {
+
+    private final UserAchievementBatchRepository userAchievementBatchRepository;
+    private final UserRepository userRepository;
+    private final AchievementRepository achievementRepository;
+    private final UserAchievementService userAchievementService;
+    private final int chunkSize;
+
+    private final Map<Long, BackfillJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    public AchievementBackfillService(
+            UserAchievementBatchRepository userAchievementBatchRepository,
+            UserRepository userRepository,
+            AchievementRepository achievementRepository,
+            UserAchievementService userAchievementService,
+            @Value("${achievement.backfill.chunk-size:5000}") int chunkSize
+    ) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be greater than 0");
+        }
+
+        this.userAchievementBatchRepository = userAchievementBatchRepository;
+        this.userRepository = userRepository;
+        this.achievementRepository = achievementRepository;
+        this.userAchievementService = userAchievementService;
+        this.chunkSize = chunkSize;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AchievementBackfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class BackfillJob {
+        private final Long achievementId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile Status status = Status.RUNNING;
+        private volatile long totalUsers;
+        private volatile long processedUsers;
+        private volatile long insertedRows;
+        private volatile LocalDateTime finishedAt;
+
+        private BackfillJob(Long achievementId) {
+            this.achievementId = achievementId;
+        }
+
+        private AchievementBackfillProgressDTO toDto() {
+            return new AchievementBackfillProgressDTO(achievementId, status, totalUsers, processedUsers,
+                    insertedRows, startedAt, finishedAt);
+        }
+    }
+
+    //! Новый пользователь: одна вставка всех достижений в той же транзакции, что и создание пользователя
+    @EventListener
+    public void handleUserCreated(UserCreatedEvent event) {
+        userAchievementBatchRepository.insertAllAchievementsForUser(event.user().getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleAchievementCreated(AchievementCreatedEvent event) {
+        startBackfill(event.achievement().getId());
+    }
+
+    public AchievementBackfillProgressDTO startBackfill(Long achievementId) {
+        if (!achievementRepository.existsById(achievementId)) {
+            throw new EntityNotFoundException("Achievement not found for id: " + achievementId);
+        }
+
+        BackfillJob job = new BackfillJob(achievementId);
+        BackfillJob current = jobs.compute(achievementId,
+                (id, existing) -> existing != null && existing.status == Status.RUNNING ? existing : job);
+        if (current == job) {
+            executor.execute(() -> runBackfill(job));
+        }
+        return current.toDto();
+    }
+
+    public AchievementBackfillProgressDTO getProgress(Long achievementId) {
+        BackfillJob job = jobs.get(achievementId);
+        if (job == null) {
+            throw new EntityNotFoundException("Backfill not found for achievement id: " + achievementId);
+        }
+        return job.toDto();
+    }
+
+    private void runBackfill(BackfillJob job) {
+        try {
+            job.totalUsers = userRepository.count();
+            long afterUserId = 0;
+            Long toUserId;
+            while ((toUserId = userAchievementBatchRepository.findUserChunkUpperBound(afterUserId, chunkSize)) != null) {
+                job.insertedRows += userAchievementBatchRepository
+                        .insertAchievementForUserRange(job.achievementId, afterUserId, toUserId);
+                job.processedUsers = Math.min(job.processedUsers + chunkSize, job.totalUsers);
+                afterUserId = toUserId;
+            }
+
+            job.processedUsers = job.totalUsers;
+            job.status = Status.COMPLETED;
+            log.info("Achievement {} backfill completed: {} rows for {} users",
+                    job.achievementId, job.insertedRows, job.totalUsers);
+        } catch (Exception e) {
+            job.status = Status.FAILED;
+            log.error("Achievement {} backfill failed after {} users: {}",
+                    job.achievementId, job.processedUsers, e.getMessage(), e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            //! Закэшированные списки незавершенных достижений не знают о новых строках
+            userAchievementService.evictIncompleteAchievements();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,213 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.event.AchievementsUpdatedEvent;
+import edu.juanoff.taskmanager.handler.AchievementAction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+//! События достижений одного пользователя всегда попадают в одну полосу (lane) и обрабатываются
+//! по порядку одним потоком, разные пользователи идут параллельно по разным полосам.
+//! Пока пользователь ждет в очереди, новые события сливаются с уже накопленными: на задачу хранится не больше
+//! одного CREATE и одного COMPLETE (переходы статуса складываются в один от первого состояния к последнему).
+//! Пользователь стоит в очереди не больше одного раза, поэтому переполнение полосы уходит в overflow: его размер
+//! ограничен числом пользователей с необработанными событиями, а поток запроса не ждет. Пока overflow не пуст,
+//! новые пользователи встают за ним, а поток полосы переносит его в полосу по мере освобождения места (FIFO).
+//! Через полосу пользователя выполняются и задачи, которые не должны пересекаться с его событиями (пересчет).
+@Service
+@Slf4j
+public class AchievementLaneDispatcher {
+
+    private final UserAchievementService userAchievementService;
+
+    private final List<BlockingQueue<Long>> lanes;
+    private final List<Queue<Long>> overflows;
+    private final List<Thread> workers;
+    private final Map<Long, PendingWork> pendingWork = new ConcurrentHashMap<>();
+    private final Counter mergedEvents;
+    private final Counter overflowedUsers;
+    private volatile boolean running = true;
+
+    public AchievementLaneDispatcher(
+            UserAchievementService userAchievementService,
+            MeterRegistry meterRegistry,
+            @Value("${achievement.lanes.count:4}") int laneCount,
+            @Value("${achievement.lanes.queue-capacity:1000}") int queueCapacity
+    ) {
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("laneCount must be greater than 0");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be greater than 0");
+        }
+
+        this.userAchievementService = userAchievementService;
+        this.lanes = new ArrayList<>(laneCount);
+        this.overflows = new ArrayList<>(laneCount);
+        this.workers = new ArrayList<>(laneCount);
+
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<Long> lane = new LinkedBlockingQueue<>(queueCapacity);
+            Queue<Long> overflow = new ConcurrentLinkedQueue<>();
+            lanes.add(lane);
+            overflows.add(overflow);
+            Gauge.builder("achievement.lanes.queue.depth", lane, BlockingQueue::size)
+                    .tag("lane", String.valueOf(i))
+                    .register(meterRegistry);
+            Gauge.builder("achievement.lanes.overflow.depth", overflow, Queue::size)
+                    .tag("lane", String.valueOf(i))
+                    .register(meterRegistry);
+
+            Thread worker = new Thread(() -> runLane(lane, overflow), "AchievementLane-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+
+        Gauge.builder("achievement.lanes.pending.users", pendingWork, Map::size).register(meterRegistry);
+        this.mergedEvents = Counter.builder("achievement.lanes.merged").register(meterRegistry);
+        this.overflowedUsers = Counter.builder("achievement.lanes.overflowed").register(meterRegistry);
+
+        workers.forEach(Thread::start);
+    }
+
+    private static final class PendingWork {
+        private final Map<Object, AchievementsUpdatedEvent> events = new LinkedHashMap<>();
+        private final List<Runnable> tasks = new ArrayList<>();
+    }
+
+    private record EventKey(Long taskId, String action) {
+    }
+
+    public void submit(AchievementsUpdatedEvent event) {
+        enqueue(event.userId(), work -> mergeEvent(work.events, event));
+    }
+
+    //! Обработчики сравнивают состояние задачи до и после, поэтому цепочка COMPLETE одной задачи
+    //! эквивалентна одному переходу от первого currentTask к последнему newTask
+    private void mergeEvent(Map<Object, AchievementsUpdatedEvent> events, AchievementsUpdatedEvent event) {
+        Long taskId = event.newTask() != null ? event.newTask().getId() : null;
+        Object key = taskId != null ? new EventKey(taskId, event.action()) : new Object();
+        AchievementsUpdatedEvent previous = events.get(key);
+        if (previous != null && AchievementAction.COMPLETE.equals(event.action())) {
+            events.put(key, new AchievementsUpdatedEvent(event.userId(), previous.currentTask(), event.newTask(),
+                    event.action()));
+            mergedEvents.increment();
+            return;
+        }
+        events.put(key, event);
+    }
+
+    //! Задача выполняется после уже накопленных событий пользователя
+    public <T> CompletableFuture<T> execute(Long userId, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        enqueue(userId, work -> work.tasks.add(() -> {
+            try {
+                future.complete(task.get());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }));
+        return future;
+    }
+
+    private void enqueue(Long userId, Consumer<PendingWork> append) {
+        boolean[] enqueue = {false};
+        pendingWork.compute(userId, (id, work) -> {
+            if (work == null) {
+                work = new PendingWork();
+                enqueue[0] = true;
+            }
+            append.accept(work);
+            return work;
+        });
+
+        if (!enqueue[0]) {
+            return;
+        }
+
+        int lane = laneIndexOf(userId);
+        Queue<Long> overflow = overflows.get(lane);
+        if (!overflow.isEmpty() || !lanes.get(lane).offer(userId)) {
+            overflow.add(userId);
+            overflowedUsers.increment();
+        }
+    }
+
+    private int laneIndexOf(Long userId) {
+        return Math.floorMod(userId.hashCode(), lanes.size());
+    }
+
+    private void runLane(BlockingQueue<Long> lane, Queue<Long> overflow) {
+        while (running || !lane.isEmpty() || !overflow.isEmpty()) {
+            refillFromOverflow(lane, overflow);
+            Long userId = lane.poll();
+            if (userId == null) {
+                try {
+                    userId = lane.poll(500, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (userId == null) {
+                continue;
+            }
+
+            //! После remove новые события пользователя снова ставят его в очередь
+            PendingWork work = pendingWork.remove(userId);
+            if (work == null) {
+                continue;
+            }
+
+            if (!work.events.isEmpty()) {
+                try {
+                    userAchievementService.processAchievementUpdates(userId, new ArrayList<>(work.events.values()));
+                } catch (Exception e) {
+                    log.error("Failed to process {} achievement events for user {}: {}",
+                            work.events.size(), userId, e.getMessage(), e);
+                }
+            }
+            work.tasks.forEach(Runnable::run);
+        }
+    }
+
+    //! Из overflow читает только поток полосы, поэтому peek/poll не конкурируют между собой
+    private void refillFromOverflow(BlockingQueue<Long> lane, Queue<Long> overflow) {
+        Long next;
+        while ((next = overflow.peek()) != null && lane.offer(next)) {
+            overflow.poll();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -1,15 +1,12 @@
 package edu.juanoff.taskmanager.service;
 
 import edu.juanoff.taskmanager.entity.UserAchievement;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+//! Только меняет состояние; уведомление о завершении отправляет UserAchievementService после записи в БД
 @Service
-@RequiredArgsConstructor
 public class AchievementProgressService {
 
-    private final NotificationService notificationService;
-
     public void incrementProgress(UserAchievement achievement, int target) {
         achievement.setProgress(achievement.getProgress() + 1);
         checkCompletion(achievement, target);
@@ -23,7 +20,6 @@ public class AchievementProgressService {
 
     public void checkCompletion(UserAchievement achievement, int target) {
         if (achievement.getProgress() >= target) {
-            notificationService.createNotificationForAchievement(achievement);
             achievement.setCompleted(true);
         }
     }
@@ -0,0 +1,219 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.dto.achievement.AchievementBackfillProgressDTO.Status;
+import edu.juanoff.taskmanager.dto.achievement.AchievementRecomputeProgressDTO;
+import edu.juanoff.taskmanager.dto.achievement.UserAchievementProgressDTO;
+import edu.juanoff.taskmanager.dto.task.TaskAchievementFactDTO;
+import edu.juanoff.taskmanager.handler.AchievementHandler;
+import edu.juanoff.taskmanager.repository.TaskRepository;
+import edu.juanoff.taskmanager.repository.UserAchievementBatchRepository;
+import edu.juanoff.taskmanager.repository.UserAchievementBatchRepository.ProgressCorrection;
+import edu.juanoff.taskmanager.repository.UserAchievementRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+//! Пересчет прогресса достижений с нуля по текущим задачам, когда инкрементальный прогресс разошелся с данными.
+//! Пользователи обходятся порциями по id: задачи порции читаются курсором только для чтения,
+//! правила обработчиков считаются параллельно в ForkJoinPool. Исправления пишутся в полосе пользователя
+//! (AchievementLaneDispatcher), чтобы не пересекаться с его событиями, и только для строк, которые
+//! события не изменили после чтения; пропущенные строки исправит следующий пересчет.
+@Service
+@Slf4j
+public class AchievementRecomputeService {
+
+    private final TaskRepository taskRepository;
+    private final UserAchievementRepository userAchievementRepository;
+    private final UserAchievementBatchRepository userAchievementBatchRepository;
+    private final UserAchievementService userAchievementService;
+    private final AchievementLaneDispatcher laneDispatcher;
+    private final Map<String, AchievementHandler> handlersByName;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int chunkSize;
+
+    private final ForkJoinPool forkJoinPool;
+    private final ExecutorService executor;
+    private final AtomicReference<RecomputeJob> currentJob = new AtomicReference<>();
+
+    public AchievementRecomputeService(
+            TaskRepository taskRepository,
+            UserAchievementRepository userAchievementRepository,
+            UserAchievementBatchRepository userAchievementBatchRepository,
+            UserAchievementService userAchievementService,
+            AchievementLaneDispatcher laneDispatcher,
+            List<AchievementHandler> achievementHandlers,
+            PlatformTransactionManager transactionManager,
+            @Value("${achievement.recompute.chunk-size:1000}") int chunkSize,
+            @Value("${achievement.recompute.parallelism:0}") int parallelism
+    ) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be greater than 0");
+        }
+
+        this.taskRepository = taskRepository;
+        this.userAchievementRepository = userAchievementRepository;
+        this.userAchievementBatchRepository = userAchievementBatchRepository;
+        this.userAchievementService = userAchievementService;
+        this.laneDispatcher = laneDispatcher;
+        this.handlersByName = achievementHandlers.stream()
+                .collect(Collectors.toMap(handler -> handler.name().getDisplayName(), Function.identity()));
+        this.chunkSize = chunkSize;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.forkJoinPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AchievementRecompute");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class RecomputeJob {
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private volatile Status status = Status.RUNNING;
+        private volatile long processedUsers;
+        private volatile long scannedTasks;
+        private volatile long updatedRows;
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedNanos;
+
+        private double tasksPerSecond() {
+            long end = finishedAt != null ? finishedNanos : System.nanoTime();
+            double seconds = Math.max(end - startedNanos, 1) / 1_000_000_000.0;
+            return scannedTasks / seconds;
+        }
+
+        private AchievementRecomputeProgressDTO toDto() {
+            return new AchievementRecomputeProgressDTO(status, processedUsers, scannedTasks, updatedRows,
+                    tasksPerSecond(), startedAt, finishedAt);
+        }
+    }
+
+    public AchievementRecomputeProgressDTO startRecompute() {
+        RecomputeJob job = new RecomputeJob();
+        RecomputeJob current = currentJob.updateAndGet(
+                existing -> existing != null && existing.status == Status.RUNNING ? existing : job);
+        if (current == job) {
+            executor.execute(() -> runRecompute(job));
+        }
+        return current.toDto();
+    }
+
+    public AchievementRecomputeProgressDTO getProgress() {
+        RecomputeJob job = currentJob.get();
+        if (job == null) {
+            throw new EntityNotFoundException("Achievement recompute has not been started");
+        }
+        return job.toDto();
+    }
+
+    private void runRecompute(RecomputeJob job) {
+        try {
+            long afterUserId = 0;
+            Long toUserId;
+            while ((toUserId = userAchievementBatchRepository.findUserChunkUpperBound(afterUserId, chunkSize)) != null) {
+                recomputeChunk(job, afterUserId, toUserId);
+                afterUserId = toUserId;
+                log.debug("Achievement recompute: {} users, {} tasks, {} tasks/s",
+                        job.processedUsers, job.scannedTasks, String.format("%.0f", job.tasksPerSecond()));
+            }
+            job.status = Status.COMPLETED;
+        } catch (Exception e) {
+            job.status = Status.FAILED;
+            log.error("Achievement recompute failed after {} users: {}", job.processedUsers, e.getMessage(), e);
+        } finally {
+            job.finishedNanos = System.nanoTime();
+            job.finishedAt = LocalDateTime.now();
+            log.info("Achievement recompute {}: {} users, {} tasks, {} rows updated in {}, {} tasks/s",
+                    job.status, job.processedUsers, job.scannedTasks, job.updatedRows,
+                    Duration.ofNanos(job.finishedNanos - job.startedNanos),
+                    String.format("%.0f", job.tasksPerSecond()));
+        }
+    }
+
+    private void recomputeChunk(RecomputeJob job, long afterUserId, long toUserId) {
+        Map<Long, List<TaskAchievementFactDTO>> tasksByUser = readOnlyTransaction.execute(status -> {
+            try (Stream<TaskAchievementFactDTO> tasks =
+                         taskRepository.streamAchievementFactsForUserRange(afterUserId, toUserId)) {
+                return tasks.collect(Collectors.groupingBy(TaskAchievementFactDTO::userId));
+            }
+        });
+        Map<Long, List<UserAchievementProgressDTO>> achievementsByUser = userAchievementRepository
+                .findProgressForUserRange(afterUserId, toUserId).stream()
+                .collect(Collectors.groupingBy(UserAchievementProgressDTO::userId));
+
+        Map<Long, List<ProgressCorrection>> correctedByUser = forkJoinPool.submit(() -> achievementsByUser.entrySet()
+                .parallelStream()
+                .collect(Collectors.toConcurrentMap(Map.Entry::getKey, entry -> recomputeUser(entry.getValue(),
+                        tasksByUser.getOrDefault(entry.getKey(), List.of()))))
+        ).join();
+        correctedByUser.values().removeIf(List::isEmpty);
+
+        //! Кэш незавершенных достижений сбрасывается в полосе, поэтому следующие события читают исправленные строки
+        List<CompletableFuture<Integer>> writes = correctedByUser.entrySet().stream()
+                .map(entry -> laneDispatcher.execute(entry.getKey(), () -> {
+                    userAchievementService.evictIncompleteAchievements(List.of(entry.getKey()));
+                    return userAchievementBatchRepository.correctProgress(entry.getValue());
+                }))
+                .toList();
+        int updated = writes.stream().mapToInt(CompletableFuture::join).sum();
+        int corrected = correctedByUser.values().stream().mapToInt(List::size).sum();
+        if (updated < corrected) {
+            log.debug("Achievement recompute: {} rows changed by events since read, skipped", corrected - updated);
+        }
+
+        job.processedUsers += achievementsByUser.size();
+        job.scannedTasks += tasksByUser.values().stream().mapToLong(List::size).sum();
+        job.updatedRows += updated;
+    }
+
+    //! Прогресс не превышает цель; завершенное достижение остается завершенным, уведомления не отправляются
+    private List<ProgressCorrection> recomputeUser(List<UserAchievementProgressDTO> achievements,
+                                                   List<TaskAchievementFactDTO> tasks) {
+        List<ProgressCorrection> corrected = new ArrayList<>();
+        for (UserAchievementProgressDTO achievement : achievements) {
+            AchievementHandler handler = handlersByName.get(achievement.achievementName());
+            if (handler == null) {
+                continue;
+            }
+
+            int counted = (int) tasks.stream().filter(handler::isCounted).count();
+            int progress = Math.min(counted, achievement.targetValue());
+            boolean completed = achievement.completed() || progress >= achievement.targetValue();
+            if (progress == achievement.progress() && completed == achievement.completed()) {
+                continue;
+            }
+
+            corrected.add(new ProgressCorrection(achievement.id(), achievement.progress(), achievement.completed(),
+                    progress, completed));
+        }
+        return corrected;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+        forkJoinPool.shutdown();
+    }
+}
@@ -0,0 +1,67 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.dto.notification.NotificationCountersDTO;
+import edu.juanoff.taskmanager.entity.NotificationCounter;
+import edu.juanoff.taskmanager.event.UserCreatedEvent;
+import edu.juanoff.taskmanager.repository.NotificationCounterRepository;
+import edu.juanoff.taskmanager.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+//! Счетчики для бейджа в шапке обновляются инкрементально вместе с уведомлениями,
+//! пересчет по таблице notifications нужен только для старых пользователей без строки и после удаления секций
+@Service
+@RequiredArgsConstructor
+public class NotificationCounterService {
+
+    private final NotificationCounterRepository notificationCounterRepository;
+    private final NotificationRepository notificationRepository;
+
+    //! Строка счетчика создается вместе с пользователем, поэтому дальше работают только UPDATE
+    @EventListener
+    public void handleUserCreated(UserCreatedEvent event) {
+        notificationCounterRepository.insertCountedIfAbsent(event.user().getId());
+    }
+
+    @Transactional
+    public void applyDelta(Long userId, int unreadDelta, int openDelta) {
+        if (unreadDelta == 0 && openDelta == 0) {
+            return;
+        }
+        //! Строки нет только у пользователей, созданных до появления счетчиков. Пересчет уже учитывает
+        //! текущее изменение; если строку параллельно вставила другая транзакция, дельта применяется к ней
+        if (notificationCounterRepository.applyDelta(userId, unreadDelta, openDelta) == 0
+                && notificationCounterRepository.insertCountedIfAbsent(userId) == 0) {
+            notificationCounterRepository.applyDelta(userId, unreadDelta, openDelta);
+        }
+    }
+
+    //! Восстановление счетчика по таблице notifications: нет строки или секция удалена целиком.
+    //! UPDATE, затем INSERT вместо ON CONFLICT DO UPDATE: так же работает на H2 в профиле test
+    @Transactional
+    public NotificationCountersDTO recount(Long userId) {
+        NotificationCounter counter = countFromNotifications(userId);
+        if (notificationCounterRepository.overwrite(userId, counter.getUnreadCount(), counter.getOpenCount()) == 0
+                && notificationCounterRepository.insertCountedIfAbsent(userId) == 0) {
+            notificationCounterRepository.overwrite(userId, counter.getUnreadCount(), counter.getOpenCount());
+        }
+        return NotificationCountersDTO.fromEntity(counter);
+    }
+
+    @Transactional
+    public NotificationCountersDTO getCounters(Long userId) {
+        return notificationCounterRepository.findById(userId)
+                .map(NotificationCountersDTO::fromEntity)
+                .orElseGet(() -> recount(userId));
+    }
+
+    private NotificationCounter countFromNotifications(Long userId) {
+        return NotificationCounter.builder()
+                .userId(userId)
+                .unreadCount((int) notificationRepository.countByUserIdAndIsReadFalseAndIsClosedFalse(userId))
+                .openCount((int) notificationRepository.countByUserIdAndIsClosedFalse(userId))
+                .build();
+    }
+}
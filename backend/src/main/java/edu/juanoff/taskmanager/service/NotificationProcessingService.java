@@ -1,9 +1,8 @@
 package edu.juanoff.taskmanager.service;
 
-import edu.juanoff.taskmanager.entity.NotificationSettings;
 import edu.juanoff.taskmanager.entity.Task;
-import edu.juanoff.taskmanager.entity.User;
-import edu.juanoff.taskmanager.entity.UserSettings;
+import edu.juanoff.taskmanager.entity.TaskReminder;
+import edu.juanoff.taskmanager.repository.TaskReminderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,8 +10,8 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -21,43 +20,34 @@ public class NotificationProcessingService {
 
     private final NotificationService notificationService;
     private final TaskService taskService;
+    private final TaskReminderRepository taskReminderRepository;
 
+    //! Повторная проверка на момент срабатывания: задача могла измениться после постановки в очередь
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void processTaskNotifications(Task task, List<User> usersWithAccess) {
+    public void processReminder(Long reminderId) {
         try {
-            log.debug("Task {} has {} users with access", task.getId(), usersWithAccess.size());
-            log.info("Reach method: processTaskNotifications");
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime dueDate = task.getDueDate();
-            Long ownerId = task.getUser().getId();
-
-            for (User user : usersWithAccess) {
-                UserSettings settings = user.getSettings();
-                NotificationSettings ns = settings.getNotificationSettingsObj();
-                log.info("SUCCESS GET SETTINGS USER: {}", ns);
-                if (!ns.isTaskEnabled()) {
-                    log.info("TASK IS NOT ENABLED");
-                    continue;
-                }
+            Optional<TaskReminder> reminderOpt = taskReminderRepository.findWithTaskAndUserById(reminderId);
+            if (reminderOpt.isEmpty()) {
+                return;
+            }
 
-                long intervalMinutes = ns.getTaskNotificationInterval();
-                log.info("INTERVAL MINUTES: {}", intervalMinutes);
-                LocalDateTime userThreshold = now.plusMinutes(intervalMinutes);
-                log.info("USER THRESHOLD: {}", userThreshold);
+            TaskReminder reminder = reminderOpt.get();
+            Task task = reminder.getTask();
+            if (reminder.getSent() || task.getCompletedAt() != null || !task.getDueDate().isAfter(LocalDateTime.now())) {
+                return;
+            }
 
-                if (dueDate.isAfter(now) && dueDate.isBefore(userThreshold)) {
-                    log.info("TASK IN INTERVAL IS GOOD...");
-                    notificationService.createNotificationForTask(task, user);
-                    if (Objects.equals(user.getId(), ownerId)) {
-                        log.info("IT IS OWNER. SET TASK NOTIFIED");
-                        taskService.setTaskNotified(task);
-                    } else {
-                        log.info("IT IS NOT OWNER. SET TASK NOT NOTIFIED");
-                    }
-                }
+            //! sent выставляет NotificationSink в транзакции записи уведомления; условный UPDATE там же
+            //! отбрасывает дубликат при гонке с перезагрузкой окна. Отключенные уведомления помечаем сразу
+            if (!notificationService.createNotificationForTask(task, reminder.getUser(), reminderId)) {
+                taskReminderRepository.markSentById(reminderId);
+                return;
+            }
+            if (Objects.equals(task.getUser().getId(), reminder.getUser().getId())) {
+                taskService.setTaskNotified(task);
             }
         } catch (Exception e) {
-            log.error("Error processing notifications for task {}: {}", task.getId(), e.getMessage());
+            log.error("Error processing reminder {}: {}", reminderId, e.getMessage());
         }
     }
 }
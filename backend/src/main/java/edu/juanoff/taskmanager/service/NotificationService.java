@@ -1,15 +1,18 @@
 package edu.juanoff.taskmanager.service;
 
+import edu.juanoff.taskmanager.dto.notification.NotificationCountersDTO;
+import edu.juanoff.taskmanager.dto.notification.NotificationCursorDTO;
+import edu.juanoff.taskmanager.dto.notification.NotificationPageResponseDTO;
 import edu.juanoff.taskmanager.dto.notification.NotificationResponseDTO;
-import edu.juanoff.taskmanager.dto.task.TaskUpdateDTO;
 import edu.juanoff.taskmanager.entity.*;
-import edu.juanoff.taskmanager.event.TaskUpdatedEvent;
+import edu.juanoff.taskmanager.event.NotificationCountersChangedEvent;
 import edu.juanoff.taskmanager.repository.NotificationRepository;
-import edu.juanoff.taskmanager.repository.TaskAccessRepository;
-import edu.juanoff.taskmanager.repository.TaskRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,14 +26,19 @@ import java.util.function.Predicate;
 @Slf4j
 public class NotificationService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
     private final SimpMessagingTemplate messagingTemplate;
-    private final TaskAccessRepository taskAccessRepository;
-    private final TaskRepository taskRepository;
+    private final UserSettingsService userSettingsService;
+    private final NotificationCounterService notificationCounterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationSink notificationSink;
 
-    public void createNotificationForTask(Task task, User user) {
+    //! false, если уведомления о задачах отключены и напоминание отправлять не нужно
+    public boolean createNotificationForTask(Task task, User user, Long reminderId) {
         if (isNotificationDisabled(user, NotificationSettings::isTaskEnabled)) {
-            return;
+            return false;
         }
 
         log.info("Reach method: createNotificationForTask");
@@ -42,8 +50,8 @@ public class NotificationService {
                 null, null
         );
 
-        Notification notification = saveNotification(user, Notification.Type.TASK_DEADLINE, metadata);
-        sendNotificationToUser(notification);
+        submitNotification(user, Notification.Type.TASK_DEADLINE, metadata, reminderId);
+        return true;
     }
 
     public void createNotificationForInvitation(Invitation invitation) {
@@ -59,8 +67,7 @@ public class NotificationService {
                 null, null
         );
 
-        Notification notification = saveNotification(user, Notification.Type.TASK_INVITATION, metadata);
-        sendNotificationToUser(notification);
+        submitNotification(user, Notification.Type.TASK_INVITATION, metadata);
     }
 
     public void createNotificationForAchievement(UserAchievement userAchievement) {
@@ -75,8 +82,7 @@ public class NotificationService {
                 userAchievement.getId().toString(), userAchievement.getAchievement().getName()
         );
 
-        Notification notification = saveNotification(user, Notification.Type.USER_ACHIEVEMENT, metadata);
-        sendNotificationToUser(notification);
+        submitNotification(user, Notification.Type.USER_ACHIEVEMENT, metadata);
     }
 
     public void createResponseNotificationForInvitation(Invitation invitation, String action) {
@@ -91,8 +97,7 @@ public class NotificationService {
                 null, null, null
         );
 
-        Notification notification = saveNotification(user, Notification.Type.TASK_INVITATION_RESPONSE, metadata);
-        sendNotificationToUser(notification);
+        submitNotification(user, Notification.Type.TASK_INVITATION_RESPONSE, metadata);
     }
 
     public void createNotificationForAccessChanged(TaskAccess taskAccess) {
@@ -104,8 +109,7 @@ public class NotificationService {
                 null, null
         );
 
-        Notification notification = saveNotification(user, Notification.Type.TASK_ACCESS_RIGHTS_CHANGED, metadata);
-        sendNotificationToUser(notification);
+        submitNotification(user, Notification.Type.TASK_ACCESS_RIGHTS_CHANGED, metadata);
     }
 
     public void createNotificationForAccessRemoved(TaskAccess taskAccess) {
@@ -117,56 +121,11 @@ public class NotificationService {
                 null, null, null
         );
 
-        Notification notification = saveNotification(user, Notification.Type.TASK_ACCESS_RIGHTS_REMOVED, metadata);
-        sendNotificationToUser(notification);
-    }
-
-    private record UserWithAccess(User user, AccessLevel accessLevel) {
-    }
-
-    public void notifyTaskUpdate(TaskUpdatedEvent taskUpdatedEvent) {
-        TaskUpdateDTO taskUpdateDTO = taskUpdatedEvent.taskUpdateDTO();
-        List<UserWithAccess> users = getUsersWithAccess(taskUpdateDTO.id(), taskUpdatedEvent.userId());
-
-        for (UserWithAccess user : users) {
-            String username = user.user().getUsername();
-            try {
-                messagingTemplate.convertAndSendToUser(
-                        username,
-                        "/topic/task-updates/" + taskUpdateDTO.id(),
-                        TaskUpdateDTO.fromEntity(taskUpdateDTO, user.accessLevel)
-                );
-                log.debug("Sent task update for task {} to user {}", taskUpdateDTO.id(), username);
-            } catch (Exception e) {
-                log.error("Failed to send task update for task {} to user {}: {}",
-                        taskUpdateDTO.id(), username, e.getMessage());
-            }
-        }
-    }
-
-    @Transactional(readOnly = true)
-    private List<UserWithAccess> getUsersWithAccess(Long taskId, Long userId) {
-        Task task = taskRepository.findTaskWithUserById(taskId)
-                .orElseThrow(() -> new EntityNotFoundException("Task not found for id: " + taskId));
-
-        Set<UserWithAccess> users = new HashSet<>();
-
-        Optional.of(task.getUser())
-                .filter(u -> !u.getId().equals(userId))
-                .map(u -> new UserWithAccess(u, AccessLevel.OWNER))
-                .ifPresent(users::add);
-
-        List<TaskAccess> taskAccesses = taskAccessRepository.findByTaskId(task.getId()).stream()
-                .filter(ta -> !ta.getUser().getId().equals(userId))
-                .toList();
-
-        taskAccesses.forEach(access -> users.add(new UserWithAccess(access.getUser(), access.getAccessLevel())));
-
-        return new ArrayList<>(users);
+        submitNotification(user, Notification.Type.TASK_ACCESS_RIGHTS_REMOVED, metadata);
     }
 
     private boolean isNotificationDisabled(User user, Predicate<NotificationSettings> predicate) {
-        NotificationSettings settings = user.getSettings().getNotificationSettingsObj();
+        NotificationSettings settings = userSettingsService.getNotificationSettings(user.getId());
         if (settings == null || !predicate.test(settings)) {
             log.error("Notification disabled or missing for setting");
             return true;
@@ -185,32 +144,21 @@ public class NotificationService {
         };
     }
 
-    @Transactional
-    private Notification saveNotification(User user, Notification.Type type, NotificationMetadata metadata) {
-        log.info("Reach method: saveNotification");
+    //! Запись и отправка выполняются пачкой в NotificationSink после коммита
+    private void submitNotification(User user, Notification.Type type, NotificationMetadata metadata) {
+        submitNotification(user, type, metadata, null);
+    }
 
+    private void submitNotification(User user, Notification.Type type, NotificationMetadata metadata,
+                                    Long reminderId) {
         Notification notification = Notification.builder()
                 .user(user)
                 .type(type)
                 .title(getTitleForType(type))
                 .metadata(metadata)
+                .taskId(metadata.taskId() != null ? Long.valueOf(metadata.taskId()) : null)
                 .build();
-        return notificationRepository.save(notification);
-    }
-
-    private void sendNotificationToUser(Notification notification) {
-        try {
-            log.info("Reach method: sendNotificationToUser");
-            NotificationResponseDTO notificationDTO = NotificationResponseDTO.fromEntity(notification);
-            messagingTemplate.convertAndSendToUser(
-                    notification.getUser().getUsername(),
-                    "/topic/notifications",
-                    notificationDTO
-            );
-            log.info("Success send in method: sendNotificationToUser");
-        } catch (Exception e) {
-            log.error("Failed to send notification for achievement {}: {}", notification.getId(), e.getMessage());
-        }
+        notificationSink.submit(notification, reminderId);
     }
 
     @Transactional(readOnly = true)
@@ -226,23 +174,115 @@ public class NotificationService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public NotificationPageResponseDTO getNotificationsPage(Long userId, boolean onlyOpen,
+                                                           NotificationCursorDTO cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        //! Берем на одну запись больше, чтобы понять, есть ли следующая страница
+        Pageable pageable = PageRequest.ofSize(pageSize + 1);
+        boolean firstPage = cursor == null || cursor.beforeCreatedAt() == null || cursor.beforeId() == null;
+
+        List<Notification> rows;
+        if (onlyOpen) {
+            rows = firstPage
+                    ? notificationRepository.findOpenPage(userId, pageable)
+                    : notificationRepository.findOpenPageBefore(userId, cursor.beforeCreatedAt(), cursor.beforeId(), pageable);
+        } else {
+            rows = firstPage
+                    ? notificationRepository.findPage(userId, pageable)
+                    : notificationRepository.findPageBefore(userId, cursor.beforeCreatedAt(), cursor.beforeId(), pageable);
+        }
+
+        List<NotificationResponseDTO> notifications = rows.stream()
+                .limit(pageSize)
+                .map(NotificationResponseDTO::fromEntity)
+                .toList();
+        if (rows.size() <= pageSize) {
+            return new NotificationPageResponseDTO(notifications, null);
+        }
+
+        NotificationResponseDTO last = notifications.get(pageSize - 1);
+        return new NotificationPageResponseDTO(notifications, new NotificationCursorDTO(last.createdAt(), last.id()));
+    }
+
+    @Transactional
+    public NotificationCountersDTO getCounters(Long userId) {
+        return notificationCounterService.getCounters(userId);
+    }
+
+    //! Дельта счетчиков берется из числа строк условного UPDATE, а не из загруженной сущности:
+    //! параллельный запрос мог уже прочитать или закрыть уведомление
+    @Transactional
+    public void closeNotification(Long notificationId, Long userId) {
+        getNotificationEntityById(notificationId, userId);
+        if (notificationRepository.closeUnreadById(notificationId) == 1) {
+            notificationCounterService.applyDelta(userId, -1, -1);
+        } else if (notificationRepository.closeById(notificationId) == 1) {
+            notificationCounterService.applyDelta(userId, 0, -1);
+        }
+    }
+
+    @Transactional
+    public void markAsRead(Long notificationId, Long userId) {
+        getNotificationEntityById(notificationId, userId);
+        if (notificationRepository.markReadOpenById(notificationId) == 1) {
+            notificationCounterService.applyDelta(userId, -1, 0);
+        } else {
+            notificationRepository.markReadById(notificationId);
+        }
+    }
+
     @Transactional
-    public void closeNotification(Long notificationId) {
-        Notification notification = getNotificationEntityById(notificationId);
-        notification.setIsClosed(true);
-        notificationRepository.save(notification);
+    public NotificationCountersDTO markAllAsRead(Long userId, String username) {
+        int unread = notificationRepository.markAllReadOpenByUserId(userId);
+        notificationRepository.markAllReadByUserId(userId);
+        return applyBulkUpdate(userId, username, -unread, 0);
     }
 
     @Transactional
-    public void markAsRead(Long notificationId) {
-        Notification notification = getNotificationEntityById(notificationId);
-        notification.setIsRead(true);
-        notificationRepository.save(notification);
+    public NotificationCountersDTO closeAll(Long userId, String username) {
+        int unread = notificationRepository.closeAllUnreadByUserId(userId);
+        int read = notificationRepository.closeAllByUserId(userId);
+        return applyBulkUpdate(userId, username, -unread, -(unread + read));
+    }
+
+    @Transactional
+    public NotificationCountersDTO closeAllByType(Long userId, String username, Notification.Type type) {
+        int unread = notificationRepository.closeAllUnreadByUserIdAndType(userId, type);
+        int read = notificationRepository.closeAllByUserIdAndType(userId, type);
+        return applyBulkUpdate(userId, username, -unread, -(unread + read));
+    }
+
+    @Transactional
+    public NotificationCountersDTO closeAllByTask(Long userId, String username, Long taskId) {
+        int unread = notificationRepository.closeAllUnreadByUserIdAndTaskId(userId, taskId);
+        int read = notificationRepository.closeAllByUserIdAndTaskId(userId, taskId);
+        return applyBulkUpdate(userId, username, -unread, -(unread + read));
+    }
+
+    //! Клиенту уходит одно событие со счетчиками вместо события на каждое уведомление
+    private NotificationCountersDTO applyBulkUpdate(Long userId, String username, int unreadDelta, int openDelta) {
+        if (unreadDelta == 0 && openDelta == 0) {
+            return notificationCounterService.getCounters(userId);
+        }
+
+        notificationCounterService.applyDelta(userId, unreadDelta, openDelta);
+        NotificationCountersDTO counters = notificationCounterService.getCounters(userId);
+        eventPublisher.publishEvent(new NotificationCountersChangedEvent(username, counters));
+        return counters;
+    }
+
+    public void sendCountersToUser(String username, NotificationCountersDTO counters) {
+        try {
+            messagingTemplate.convertAndSendToUser(username, "/topic/notification-counters", counters);
+        } catch (Exception e) {
+            log.error("Failed to send notification counters to user {}: {}", username, e.getMessage());
+        }
     }
 
     @Transactional(readOnly = true)
-    private Notification getNotificationEntityById(Long notificationId) {
-        return notificationRepository.findById(notificationId)
+    private Notification getNotificationEntityById(Long notificationId, Long userId) {
+        return notificationRepository.findByIdAndUserId(notificationId, userId)
                 .orElseThrow(() -> new EntityNotFoundException("Notification not found for id: " + notificationId));
     }
 }
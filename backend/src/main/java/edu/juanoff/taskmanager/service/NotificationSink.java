@@ -0,0 +1,188 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.dto.notification.NotificationResponseDTO;
+import edu.juanoff.taskmanager.entity.Notification;
+import edu.juanoff.taskmanager.repository.NotificationRepository;
+import edu.juanoff.taskmanager.repository.TaskReminderRepository;
+import edu.juanoff.taskmanager.util.AsyncExecutorNames;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+//! Уведомления копятся в очереди и записываются пачками (id из пула последовательности,
+//! поэтому Hibernate объединяет INSERT в JDBC batch). Сброс по размеру пачки или по таймеру,
+//! отправка в WebSocket только после коммита пачки. В очередь уведомление попадает только после коммита
+//! транзакции, которая его породила, поэтому при ее откате уведомление не появляется.
+//! Напоминание помечается отправленным в транзакции записи уведомления: если процесс упадет до сброса
+//! очереди, напоминание останется неотправленным и DeadlineReminderEngine подхватит его при перезагрузке окна.
+@Service
+@Slf4j
+public class NotificationSink {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationCounterService notificationCounterService;
+    private final TaskReminderRepository taskReminderRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor notificationExecutor;
+    private final int batchSize;
+
+    private final BlockingQueue<PendingNotification> pending;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    public NotificationSink(
+            NotificationRepository notificationRepository,
+            NotificationCounterService notificationCounterService,
+            TaskReminderRepository taskReminderRepository,
+            SimpMessagingTemplate messagingTemplate,
+            PlatformTransactionManager transactionManager,
+            @Qualifier(AsyncExecutorNames.NOTIFICATION) Executor notificationExecutor,
+            @Value("${notification.sink.batch-size:200}") int batchSize,
+            @Value("${notification.sink.capacity:10000}") int capacity
+    ) {
+        if (batchSize <= 0 || capacity < batchSize) {
+            throw new IllegalArgumentException("batchSize must be greater than 0 and not greater than capacity");
+        }
+
+        this.notificationRepository = notificationRepository;
+        this.notificationCounterService = notificationCounterService;
+        this.taskReminderRepository = taskReminderRepository;
+        this.messagingTemplate = messagingTemplate;
+        //! Запись может начаться из afterCommit вызывающей транзакции, поэтому всегда в отдельной
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.notificationExecutor = notificationExecutor;
+        this.batchSize = batchSize;
+        this.pending = new LinkedBlockingQueue<>(capacity);
+    }
+
+    //! username читается в потоке вызывающего, пока пользователь еще привязан к его сессии
+    private record PendingNotification(Notification notification, String username, Long reminderId) {
+    }
+
+    public void submit(Notification notification) {
+        submit(notification, null);
+    }
+
+    //! reminderId - напоминание, которое считается отправленным только вместе с записью уведомления
+    public void submit(Notification notification, Long reminderId) {
+        PendingNotification pendingNotification =
+                new PendingNotification(notification, notification.getUser().getUsername(), reminderId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(pendingNotification);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(pendingNotification);
+            }
+        });
+    }
+
+    private void enqueue(PendingNotification pendingNotification) {
+        //! Очередь переполнена: записываем сами, вместо того чтобы терять уведомления
+        while (!pending.offer(pendingNotification)) {
+            flush();
+        }
+
+        if (pending.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            notificationExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.sink.flush-interval-ms:500}")
+    public void flushPeriodically() {
+        flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public void flush() {
+        List<PendingNotification> batch = new ArrayList<>(batchSize);
+        while (pending.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void writeBatch(List<PendingNotification> batch) {
+        List<PendingNotification> written;
+        try {
+            written = persist(batch);
+        } catch (Exception e) {
+            log.warn("Failed to persist batch of {} notifications, retrying one by one: {}", batch.size(), e.getMessage());
+            writeOneByOne(batch);
+            return;
+        }
+
+        written.forEach(this::send);
+    }
+
+    //! Одна ошибочная строка не должна терять всю пачку: повторяем по одной и логируем только упавшие
+    private void writeOneByOne(List<PendingNotification> batch) {
+        for (PendingNotification item : batch) {
+            //! id мог быть выдан в откаченной транзакции
+            item.notification().setId(null);
+            try {
+                persist(List.of(item)).forEach(this::send);
+            } catch (Exception e) {
+                //! Откат вернул напоминанию sent = false, оно будет отправлено повторно при перезагрузке окна
+                log.error("Failed to persist notification {} for user {}: {}", item.notification().getType(),
+                        item.notification().getUser().getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    //! Возвращает записанные уведомления: напоминание, которое уже отправил другой узел или повторный запуск,
+    //! не проходит условный UPDATE и отбрасывается
+    private List<PendingNotification> persist(List<PendingNotification> batch) {
+        return transactionTemplate.execute(status -> {
+            List<PendingNotification> accepted = batch.stream()
+                    .filter(item -> item.reminderId() == null
+                            || taskReminderRepository.markSentById(item.reminderId()) == 1)
+                    .toList();
+            notificationRepository.saveAll(accepted.stream().map(PendingNotification::notification).toList());
+            accepted.stream()
+                    .collect(Collectors.groupingBy(item -> item.notification().getUser().getId(), Collectors.counting()))
+                    .forEach((userId, count) -> notificationCounterService.applyDelta(userId, count.intValue(), count.intValue()));
+            return accepted;
+        });
+    }
+
+    private void send(PendingNotification item) {
+        try {
+            messagingTemplate.convertAndSendToUser(
+                    item.username(),
+                    "/topic/notifications",
+                    NotificationResponseDTO.fromEntity(item.notification())
+            );
+        } catch (Exception e) {
+            log.error("Failed to send notification {}: {}", item.notification().getId(), e.getMessage());
+        }
+    }
+}
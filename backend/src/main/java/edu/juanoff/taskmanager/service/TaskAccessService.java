@@ -6,6 +6,8 @@ import edu.juanoff.taskmanager.entity.Invitation;
 import edu.juanoff.taskmanager.entity.TaskAccess;
 import edu.juanoff.taskmanager.event.AccessLevelChangedEvent;
 import edu.juanoff.taskmanager.event.AccessLevelRemovedEvent;
+import edu.juanoff.taskmanager.event.TaskAccessGrantedEvent;
+import edu.juanoff.taskmanager.event.TaskScheduleChangedEvent;
 import edu.juanoff.taskmanager.repository.TaskAccessRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -29,7 +31,10 @@ public class TaskAccessService {
                 .user(invitation.getRecipient())
                 .accessLevel(invitation.getAccessLevel())
                 .build();
-        taskAccessRepository.save(access);
+        TaskAccess saved = taskAccessRepository.save(access);
+
+        eventPublisher.publishEvent(new TaskAccessGrantedEvent(saved));
+        eventPublisher.publishEvent(new TaskScheduleChangedEvent(List.of(invitation.getTask().getId())));
     }
 
     @Transactional(readOnly = true)
@@ -73,5 +78,6 @@ public class TaskAccessService {
         taskAccessRepository.delete(access);
 
         eventPublisher.publishEvent(new AccessLevelRemovedEvent(access));
+        eventPublisher.publishEvent(new TaskScheduleChangedEvent(List.of(access.getTask().getId())));
     }
 }
@@ -0,0 +1,159 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.entity.*;
+import edu.juanoff.taskmanager.event.NotificationSettingsUpdatedEvent;
+import edu.juanoff.taskmanager.event.TaskScheduleChangedEvent;
+import edu.juanoff.taskmanager.repository.TaskAccessRepository;
+import edu.juanoff.taskmanager.repository.TaskReminderRepository;
+import edu.juanoff.taskmanager.repository.TaskRepository;
+import edu.juanoff.taskmanager.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//! Поддерживает task_reminders в актуальном состоянии в той же транзакции, что и изменение задачи
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskReminderService {
+
+    private static final int BACKFILL_CHUNK_SIZE = 500;
+
+    private final TaskReminderRepository taskReminderRepository;
+    private final TaskRepository taskRepository;
+    private final TaskAccessRepository taskAccessRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private record ReminderKey(Long taskId, Long userId) {
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void handleTaskScheduleChanged(TaskScheduleChangedEvent event) {
+        refreshTasks(event.taskIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void handleNotificationSettingsUpdated(NotificationSettingsUpdatedEvent event) {
+        refreshUser(event.userId());
+    }
+
+    //! Задачи, созданные до появления task_reminders, получают напоминания при старте.
+    //! Каждая порция идет в своей транзакции; курсор по id не дает повторно выбирать задачи,
+    //! для которых напоминание не нужно (уведомления выключены)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillReminders() {
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0;
+        int total = 0;
+        List<Long> chunk;
+        do {
+            chunk = taskRepository.findReminderCandidateIdsWithoutReminders(
+                    now, afterId, PageRequest.of(0, BACKFILL_CHUNK_SIZE));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            TaskScheduleChangedEvent event = new TaskScheduleChangedEvent(List.copyOf(chunk));
+            transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(event));
+            afterId = chunk.get(chunk.size() - 1);
+            total += chunk.size();
+        } while (chunk.size() == BACKFILL_CHUNK_SIZE);
+        log.info("Task reminders backfilled for {} tasks", total);
+    }
+
+    @Transactional
+    public void refreshTasks(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+
+        List<Task> tasks = taskRepository.findReminderCandidatesByIdIn(taskIds, LocalDateTime.now());
+        Map<Long, List<TaskAccess>> accessesByTaskId = tasks.isEmpty()
+                ? Map.of()
+                : taskAccessRepository.findWithUserSettingsByTaskIdIn(tasks.stream().map(Task::getId).toList()).stream()
+                .collect(Collectors.groupingBy(access -> access.getTask().getId()));
+
+        Map<ReminderKey, TaskReminder> desired = new HashMap<>();
+        for (Task task : tasks) {
+            addDesired(desired, task, task.getUser(), Boolean.TRUE.equals(task.getNotified()));
+            for (TaskAccess access : accessesByTaskId.getOrDefault(task.getId(), List.of())) {
+                addDesired(desired, task, access.getUser(), false);
+            }
+        }
+
+        sync(taskReminderRepository.findAllByTaskIdIn(taskIds), desired);
+    }
+
+    @Transactional
+    public void refreshUser(Long userId) {
+        Optional<User> userOpt = userRepository.findById(userId);
+        if (userOpt.isEmpty()) {
+            return;
+        }
+
+        User user = userOpt.get();
+        Map<ReminderKey, TaskReminder> desired = new HashMap<>();
+        for (Task task : taskRepository.findReminderCandidatesForUser(userId, LocalDateTime.now())) {
+            boolean isOwner = Objects.equals(task.getUser().getId(), userId);
+            addDesired(desired, task, user, isOwner && Boolean.TRUE.equals(task.getNotified()));
+        }
+
+        sync(taskReminderRepository.findAllByUserId(userId), desired);
+    }
+
+    private void addDesired(Map<ReminderKey, TaskReminder> desired, Task task, User user, boolean sent) {
+        NotificationSettings settings = user.getSettings() != null
+                ? user.getSettings().getNotificationSettings()
+                : new NotificationSettings();
+        if (!settings.isTaskEnabled()) {
+            return;
+        }
+
+        desired.put(new ReminderKey(task.getId(), user.getId()), TaskReminder.builder()
+                .task(task)
+                .user(user)
+                .notifyAt(task.getDueDate().minusMinutes(settings.getTaskNotificationInterval()))
+                .sent(sent)
+                .build());
+    }
+
+    //! Строки с неизменным notify_at не трогаем, чтобы не сбросить флаг sent
+    private void sync(List<TaskReminder> existing, Map<ReminderKey, TaskReminder> desired) {
+        Map<ReminderKey, TaskReminder> existingByKey = existing.stream()
+                .collect(Collectors.toMap(r -> new ReminderKey(r.getTask().getId(), r.getUser().getId()),
+                        Function.identity()));
+
+        List<TaskReminder> toSave = new ArrayList<>();
+        List<TaskReminder> toDelete = new ArrayList<>();
+
+        existingByKey.forEach((key, reminder) -> {
+            TaskReminder target = desired.remove(key);
+            if (target == null) {
+                toDelete.add(reminder);
+            } else if (!reminder.getNotifyAt().equals(target.getNotifyAt())) {
+                reminder.setNotifyAt(target.getNotifyAt());
+                reminder.setSent(target.getSent());
+                toSave.add(reminder);
+            }
+        });
+        toSave.addAll(desired.values());
+
+        taskReminderRepository.deleteAll(toDelete);
+        taskReminderRepository.saveAll(toSave);
+    }
+}
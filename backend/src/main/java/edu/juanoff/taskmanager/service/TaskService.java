@@ -3,19 +3,27 @@ package edu.juanoff.taskmanager.service;
 import edu.juanoff.taskmanager.dto.task.*;
 import edu.juanoff.taskmanager.entity.*;
 import edu.juanoff.taskmanager.event.AchievementsUpdatedEvent;
+import edu.juanoff.taskmanager.event.TaskDeletedEvent;
+import edu.juanoff.taskmanager.event.TaskOwnershipChangedEvent;
+import edu.juanoff.taskmanager.event.TaskScheduleChangedEvent;
 import edu.juanoff.taskmanager.event.TaskUpdatedEvent;
+import edu.juanoff.taskmanager.event.TasksBatchUpdatedEvent;
 import edu.juanoff.taskmanager.filter.TaskSearchRequestDTO;
 import edu.juanoff.taskmanager.filter.TaskSpecificationBuilder;
 import edu.juanoff.taskmanager.handler.AchievementAction;
 import edu.juanoff.taskmanager.mapper.TaskMapper;
 import edu.juanoff.taskmanager.repository.TaskAccessRepository;
 import edu.juanoff.taskmanager.repository.TaskRepository;
-import edu.juanoff.taskmanager.util.CacheNames;
+import edu.juanoff.taskmanager.security.AccessSnapshotService;
+import edu.juanoff.taskmanager.security.UserAccessSnapshot;
+import edu.juanoff.taskmanager.service.search.TaskSearchEngine;
 import edu.juanoff.taskmanager.util.TaskStatusUtils;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -23,21 +31,25 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TaskService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
     private final TaskAccessRepository taskAccessRepository;
+    private final AccessSnapshotService accessSnapshotService;
     private final UserService userService;
     private final CategoryService categoryService;
     private final ApplicationEventPublisher eventPublisher;
     private final TaskSpecificationBuilder specBuilder;
+    private final TaskSearchEngine taskSearchEngine;
 
     @Transactional
     public TaskResponseDTO createTask(TaskRequestDTO taskDto, Long userId) {
@@ -60,11 +72,15 @@ public class TaskService {
             task.setCategory(parentTask.getCategory());
         }
 
+        applyCompletionTransition(null, task);
+
         Task savedTask = taskRepository.save(task);
+        taskSearchEngine.index(savedTask);
 
         eventPublisher.publishEvent(new AchievementsUpdatedEvent(userId, null, savedTask, AchievementAction.CREATE));
-        if (TaskStatusUtils.hasTaskJustBeenCompleted(null, savedTask)) {
-            savedTask = markTaskAsCompleted(savedTask);
+        eventPublisher.publishEvent(new TaskOwnershipChangedEvent(savedTask.getId(), userId));
+        if (savedTask.getDueDate() != null) {
+            eventPublisher.publishEvent(new TaskScheduleChangedEvent(List.of(savedTask.getId())));
         }
 
         return TaskResponseDTO.fromEntity(savedTask, AccessLevel.OWNER);
@@ -110,29 +126,110 @@ public class TaskService {
         if (dto.status().equals(Task.StatusType.DONE)) {
             existingTask.setCompletedAt(LocalDateTime.now());
         }
+        applyCompletionTransition(curTask, existingTask);
 
         Task savedTask = taskRepository.save(existingTask);
+        taskSearchEngine.index(savedTask);
 
         if (savedTask.getUser().getId().equals(userId)) {
             eventPublisher.publishEvent(new AchievementsUpdatedEvent(userId, curTask, savedTask, AchievementAction.COMPLETE));
         }
 
-        if (TaskStatusUtils.hasTaskJustBeenCompleted(curTask, savedTask)) {
-            savedTask = markTaskAsCompleted(savedTask);
-        } else if (TaskStatusUtils.hasTaskBeenRevertedToIncomplete(curTask, savedTask)) {
-            savedTask = markTaskAsIncomplete(savedTask);
-        }
-
         eventPublisher.publishEvent(new TaskUpdatedEvent(TaskUpdateDTO.fromEntity(savedTask, dto.accessLevel()), userId));
+        eventPublisher.publishEvent(new TaskScheduleChangedEvent(List.of(savedTask.getId())));
 
         return TaskResponseDTO.fromEntity(savedTask, dto.accessLevel());
     }
 
     @Transactional
-    @CacheEvict(value = CacheNames.TASK_OWNERSHIP, key = "{#taskId, #userId}")
+    public TaskBatchUpdateResponseDTO updateTasksBatch(TaskBatchUpdateRequestDTO dto, Long userId) {
+        //! Для повторяющихся id берем последнее изменение
+        Map<Long, TaskBatchItemDTO> itemsByTaskId = dto.updates().stream()
+                .collect(Collectors.toMap(TaskBatchItemDTO::taskId, Function.identity(),
+                        (first, second) -> second, LinkedHashMap::new));
+
+        Map<Long, Task> tasksById = taskRepository.findAllWithSubtasksByIdIn(itemsByTaskId.keySet()).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity(), (first, second) -> first));
+        UserAccessSnapshot accessSnapshot = accessSnapshotService.getSnapshot(userId);
+        Map<Long, Category> categoriesById = new HashMap<>();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> changedTasks = new ArrayList<>();
+        List<TaskUpdateDTO> taskUpdates = new ArrayList<>();
+        List<Long> rejectedTaskIds = new ArrayList<>();
+
+        for (TaskBatchItemDTO item : itemsByTaskId.values()) {
+            Task task = tasksById.get(item.taskId());
+            if (task == null) {
+                rejectedTaskIds.add(item.taskId());
+                continue;
+            }
+
+            boolean isOwner = task.getUser().getId().equals(userId);
+            AccessLevel accessLevel = isOwner ? AccessLevel.OWNER : accessSnapshot.getSharedLevel(task.getId());
+            boolean canEdit = isOwner || AccessLevel.EDIT.equals(accessLevel);
+            boolean overdueStatusChange = item.status() != null && item.status() != Task.StatusType.DONE
+                    && task.getDueDate() != null && task.getDueDate().isBefore(now);
+
+            if (!canEdit || overdueStatusChange || (item.categoryId() != null && !isOwner)) {
+                rejectedTaskIds.add(item.taskId());
+                continue;
+            }
+
+            TaskResponseDTO curTask = taskMapper.toDto(task);
+
+            if (item.status() != null) {
+                task.setStatus(item.status());
+            }
+            if (item.priority() != null) {
+                task.setPriority(item.priority());
+            }
+            if (item.dueDate() != null && !item.dueDate().equals(task.getDueDate())) {
+                task.setDueDate(item.dueDate());
+                task.setNotified(false);
+            }
+            if (item.categoryId() != null) {
+                Category category = categoriesById.computeIfAbsent(item.categoryId(),
+                        categoryService::getCategoryEntityById);
+                task.setCategory(category);
+                task.getSubtasks().forEach(subtask -> subtask.setCategory(category));
+            }
+
+            applyCompletionTransition(curTask, task);
+
+            if (isOwner) {
+                eventPublisher.publishEvent(new AchievementsUpdatedEvent(userId, curTask, task, AchievementAction.COMPLETE));
+            }
+
+            changedTasks.add(task);
+            taskUpdates.add(TaskUpdateDTO.fromEntity(task, accessLevel));
+        }
+
+        //! Обновления уходят пачками (hibernate.jdbc.batch_size)
+        taskRepository.saveAll(changedTasks);
+
+        if (!taskUpdates.isEmpty()) {
+            eventPublisher.publishEvent(new TasksBatchUpdatedEvent(taskUpdates, userId));
+        }
+        if (!changedTasks.isEmpty()) {
+            eventPublisher.publishEvent(new TaskScheduleChangedEvent(changedTasks.stream().map(Task::getId).toList()));
+        }
+
+        return new TaskBatchUpdateResponseDTO(changedTasks.stream().map(Task::getId).toList(), rejectedTaskIds);
+    }
+
+    @Transactional
     public void deleteTask(Long taskId, Long userId) {
         Task task = getTaskByIdAndUserId(taskId, userId);
+        List<Long> deletedTaskIds = collectSubtreeIds(task);
+        Set<Long> affectedUserIds = new HashSet<>(taskAccessRepository.findUserIdsByTaskIdIn(deletedTaskIds));
+        affectedUserIds.add(userId);
         taskRepository.delete(task);
+        taskSearchEngine.remove(taskId);
+
+        eventPublisher.publishEvent(new TaskDeletedEvent(deletedTaskIds, affectedUserIds));
+
+        eventPublisher.publishEvent(new TaskScheduleChangedEvent(List.of(taskId)));
     }
 
     @Transactional(readOnly = true)
@@ -145,21 +242,22 @@ public class TaskService {
 
     @Transactional(readOnly = true)
     public TaskWithSubtasksResponseDTO getTaskById(Long taskId, Long userId) {
-        Task task = getTaskEntityById(taskId);
+        List<TaskTreeRowDTO> rows = taskRepository.findTaskTreeRows(taskId, userId);
+        TaskTreeRowDTO root = rows.stream()
+                .filter(row -> row.id().equals(taskId))
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Task not found with id: " + taskId));
 
         AccessLevel accessLevel;
-        if (task.getUser().getId().equals(userId)) {
+        if (root.userId().equals(userId)) {
             accessLevel = AccessLevel.OWNER;
+        } else if (root.sharedAccessLevel() != null) {
+            accessLevel = root.sharedAccessLevel();
         } else {
-            TaskAccess sharedAccess = taskAccessRepository.findByTaskIdAndUserId(taskId, userId)
-                    .orElseThrow(() -> new AccessDeniedException(
-                            "User with id: " + userId + " does not have access to this task"
-                    ));
-
-            accessLevel = sharedAccess.getAccessLevel();
+            throw new AccessDeniedException("User with id: " + userId + " does not have access to this task");
         }
 
-        return TaskWithSubtasksResponseDTO.fromEntity(task, accessLevel);
+        return TaskWithSubtasksResponseDTO.fromRows(root, rows, accessLevel);
     }
 
     @Transactional(readOnly = true)
@@ -203,20 +301,16 @@ public class TaskService {
 
         TaskResponseDTO curTask = taskMapper.toDto(task);
         task.setStatus(dto.status());
+        applyCompletionTransition(curTask, task);
 
         Task savedTask = taskRepository.save(task);
 
         eventPublisher.publishEvent(new AchievementsUpdatedEvent(userId, curTask, savedTask, AchievementAction.COMPLETE));
 
-        if (TaskStatusUtils.hasTaskJustBeenCompleted(curTask, savedTask)) {
-            markTaskAsCompleted(savedTask);
-        } else if (TaskStatusUtils.hasTaskBeenRevertedToIncomplete(curTask, savedTask)) {
-            markTaskAsIncomplete(savedTask);
-        }
-
         eventPublisher.publishEvent(
                 new TaskUpdatedEvent(TaskUpdateDTO.fromEntity(savedTask, dto.accessLevel()), userId)
         );
+        eventPublisher.publishEvent(new TaskScheduleChangedEvent(List.of(savedTask.getId())));
         return true;
     }
 
@@ -229,21 +323,20 @@ public class TaskService {
 
         Task task = taskOpt.get();
         TaskResponseDTO curTask = taskMapper.toDto(task);
+        if (!Objects.equals(dto.dueDate(), task.getDueDate())) {
+            task.setNotified(false);
+        }
         task.setDueDate(dto.dueDate());
+        applyCompletionTransition(curTask, task);
 
         Task savedTask = taskRepository.save(task);
 
         eventPublisher.publishEvent(new AchievementsUpdatedEvent(userId, curTask, savedTask, AchievementAction.COMPLETE));
 
-        if (TaskStatusUtils.hasTaskJustBeenCompleted(curTask, savedTask)) {
-            markTaskAsCompleted(savedTask);
-        } else if (TaskStatusUtils.hasTaskBeenRevertedToIncomplete(curTask, savedTask)) {
-            markTaskAsIncomplete(savedTask);
-        }
-
         eventPublisher.publishEvent(
                 new TaskUpdatedEvent(TaskUpdateDTO.fromEntity(savedTask, dto.accessLevel()), userId)
         );
+        eventPublisher.publishEvent(new TaskScheduleChangedEvent(List.of(savedTask.getId())));
 
         return true;
     }
@@ -275,6 +368,30 @@ public class TaskService {
         return allTasks;
     }
 
+    @Transactional(readOnly = true)
+    public TaskPageResponseDTO getTopLevelTasksPage(Long userId, TaskCursorDTO cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        //! Берем на одну запись больше, чтобы понять, есть ли следующая страница
+        Pageable pageable = PageRequest.ofSize(pageSize + 1);
+
+        List<TaskResponseDTO> rows;
+        if (cursor == null || cursor.afterId() == null) {
+            rows = taskRepository.findTaskPage(userId, pageable);
+        } else if (cursor.afterDueDate() != null) {
+            rows = taskRepository.findTaskPageAfterDueDate(userId, cursor.afterDueDate(), cursor.afterId(), pageable);
+        } else {
+            rows = taskRepository.findTaskPageAfterNoDueDate(userId, cursor.afterId(), pageable);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new TaskPageResponseDTO(rows, null);
+        }
+
+        List<TaskResponseDTO> tasks = rows.subList(0, pageSize);
+        TaskResponseDTO last = tasks.get(pageSize - 1);
+        return new TaskPageResponseDTO(tasks, new TaskCursorDTO(last.dueDate(), last.id()));
+    }
+
     @Transactional
     public void updateCategoryToNull(Long categoryId, Long userId) {
         taskRepository.updateCategoryToNull(categoryId, userId);
@@ -307,40 +424,70 @@ public class TaskService {
     }
 
     @Transactional
-    public void markTasksAsNotified(Long userId, int minutes) {
-        List<Task> upcomingTasks = getNotNotifiedUpcomingEntityTasks(userId, minutes);
-        for (Task task : upcomingTasks) {
-            task.setNotified(true);
-            taskRepository.save(task);
+    public List<Long> markTasksAsNotified(Long userId, int minutes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> taskIds = taskRepository.findNotNotifiedUpcomingTaskIds(userId, now, now.plusMinutes(minutes));
+        if (!taskIds.isEmpty()) {
+            taskRepository.markNotifiedByIdIn(taskIds);
         }
+        return taskIds;
     }
 
+    @Transactional
     public void setTaskNotified(Task task) {
+        taskRepository.markNotifiedByIdIn(List.of(task.getId()));
         task.setNotified(true);
-        taskRepository.save(task);
     }
 
-    public Task markTaskAsCompleted(Task task) {
-        task.setCompletedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+    //! Подзадачи удаляются каскадно вместе с родителем
+    private List<Long> collectSubtreeIds(Task root) {
+        List<Long> ids = new ArrayList<>();
+        Deque<Task> stack = new ArrayDeque<>(List.of(root));
+        while (!stack.isEmpty()) {
+            Task task = stack.pop();
+            ids.add(task.getId());
+            task.getSubtasks().forEach(stack::push);
+        }
+        return ids;
     }
 
-    public Task markTaskAsIncomplete(Task task) {
-        task.setCompletedAt(null);
-        return taskRepository.save(task);
+    //! completedAt выставляется до сохранения, чтобы не сохранять задачу второй раз
+    private void applyCompletionTransition(TaskResponseDTO curTask, Task task) {
+        if (TaskStatusUtils.hasTaskJustBeenCompleted(curTask, task)) {
+            task.setCompletedAt(LocalDateTime.now());
+        } else if (TaskStatusUtils.hasTaskBeenRevertedToIncomplete(curTask, task)) {
+            task.setCompletedAt(null);
+        }
     }
 
     @Transactional(readOnly = true)
-    public List<Task> getAllNotNotifiedUpcomingTasks(LocalDateTime start, LocalDateTime end) {
-        return taskRepository.findByDueDateBetweenAndNotifiedFalse(start, end);
-    }
+    public List<TaskResponseDTO> searchTasks(Long userId, TaskSearchRequestDTO request, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        UserAccessSnapshot snapshot = accessSnapshotService.getSnapshot(userId);
+
+        if (request.query() == null || request.query().isBlank()) {
+            Specification<Task> spec = specBuilder.build(userId, request);
+            Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by("dueDate", "id"));
+            return taskRepository.findAll(spec, pageable)
+                    .map(t -> TaskResponseDTO.fromEntity(t, snapshot.getAccessLevel(t.getId())))
+                    .getContent();
+        }
 
-    @Transactional(readOnly = true)
-    public List<TaskResponseDTO> searchTasks(TaskSearchRequestDTO request) {
-        Specification<Task> spec = specBuilder.build(request);
-        return taskRepository.findAll(spec)
-                .stream()
-                .map(t -> TaskResponseDTO.fromEntity(t, AccessLevel.OWNER))
+        //! Область видимости, фильтры и пагинация выполняются поисковым движком, здесь только загрузка страницы
+        List<Long> rankedIds = taskSearchEngine.findRankedTaskIds(
+                userId, request, pageNumber * pageSize, pageSize
+        );
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Task> tasksById = new HashMap<>();
+        taskRepository.findAllById(rankedIds).forEach(task -> tasksById.put(task.getId(), task));
+        return rankedIds.stream()
+                .map(tasksById::get)
+                .filter(Objects::nonNull)
+                .map(t -> TaskResponseDTO.fromEntity(t, snapshot.getAccessLevel(t.getId())))
                 .toList();
     }
 }
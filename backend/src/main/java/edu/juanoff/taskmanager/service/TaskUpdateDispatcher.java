@@ -0,0 +1,207 @@
+package edu.juanoff.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import edu.juanoff.taskmanager.dto.task.TaskUpdateDTO;
+import edu.juanoff.taskmanager.entity.AccessLevel;
+import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.entity.TaskAccess;
+import edu.juanoff.taskmanager.event.*;
+import edu.juanoff.taskmanager.repository.TaskAccessRepository;
+import edu.juanoff.taskmanager.repository.TaskRepository;
+import edu.juanoff.taskmanager.util.AsyncExecutorNames;
+import edu.juanoff.taskmanager.util.CacheNames;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+//! Сливает частые обновления одной задачи (например, перетаскивание на доске) в одно сообщение:
+//! в окне coalesce-window хранится только последнее состояние, получатели берутся из кэша,
+//! а payload сериализуется один раз на уровень доступа, а не на каждого пользователя.
+@Service
+@Slf4j
+public class TaskUpdateDispatcher {
+
+    private static final String TASK_UPDATES_DESTINATION = "/topic/task-updates/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TaskRepository taskRepository;
+    private final TaskAccessRepository taskAccessRepository;
+    private final Executor notificationExecutor;
+    private final long coalesceWindowMillis;
+    private final Cache<Long, List<TaskRecipient>> recipients;
+
+    private final Map<Long, TaskUpdatedEvent> pendingUpdates = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor timer;
+
+    @SuppressWarnings("unchecked")
+    public TaskUpdateDispatcher(
+            SimpMessagingTemplate messagingTemplate,
+            TaskRepository taskRepository,
+            TaskAccessRepository taskAccessRepository,
+            CacheManager cacheManager,
+            @Qualifier(AsyncExecutorNames.NOTIFICATION) Executor notificationExecutor,
+            @Value("${notification.task-updates.coalesce-window-ms:300}") long coalesceWindowMillis
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.taskRepository = taskRepository;
+        this.taskAccessRepository = taskAccessRepository;
+        this.notificationExecutor = notificationExecutor;
+        this.coalesceWindowMillis = coalesceWindowMillis;
+        this.recipients = (Cache<Long, List<TaskRecipient>>) cacheManager
+                .getCache(CacheNames.TASK_RECIPIENTS)
+                .getNativeCache();
+
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "TaskUpdateDispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private record TaskRecipient(Long userId, String username, AccessLevel accessLevel) {
+    }
+
+    public void submit(TaskUpdatedEvent event) {
+        Long taskId = event.taskUpdateDTO().id();
+        //! Окно открывает первое обновление, следующие только заменяют состояние
+        if (pendingUpdates.put(taskId, event) == null) {
+            timer.schedule(() -> notificationExecutor.execute(() -> flush(taskId)),
+                    coalesceWindowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    //! Пачка из PATCH /api/tasks/batch уходит по тем же адресам /topic/task-updates/{taskId},
+    //! что и одиночные обновления; получатели всех задач пачки загружаются двумя запросами
+    public void submitAll(TasksBatchUpdatedEvent event) {
+        Set<Long> taskIds = event.taskUpdateDTOs().stream()
+                .map(TaskUpdateDTO::id)
+                .collect(Collectors.toSet());
+        preloadRecipients(taskIds);
+        event.taskUpdateDTOs().forEach(dto -> submit(new TaskUpdatedEvent(dto, event.userId())));
+    }
+
+    private void preloadRecipients(Set<Long> taskIds) {
+        Set<Long> missing = new HashSet<>(taskIds);
+        missing.removeAll(recipients.getAllPresent(taskIds).keySet());
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<TaskRecipient>> loaded = new HashMap<>();
+        for (Task task : taskRepository.findAllWithUserByIdIn(missing)) {
+            loaded.computeIfAbsent(task.getId(), id -> new ArrayList<>())
+                    .add(new TaskRecipient(task.getUser().getId(), task.getUser().getUsername(), AccessLevel.OWNER));
+        }
+        for (TaskAccess access : taskAccessRepository.findByTaskIdIn(missing)) {
+            List<TaskRecipient> taskRecipients = loaded.get(access.getTask().getId());
+            if (taskRecipients != null) {
+                taskRecipients.add(new TaskRecipient(access.getUser().getId(), access.getUser().getUsername(),
+                        access.getAccessLevel()));
+            }
+        }
+        loaded.forEach((taskId, taskRecipients) -> recipients.put(taskId, List.copyOf(taskRecipients)));
+    }
+
+    private void flush(Long taskId) {
+        TaskUpdatedEvent event = pendingUpdates.remove(taskId);
+        if (event == null) {
+            return;
+        }
+
+        try {
+            TaskUpdateDTO update = event.taskUpdateDTO();
+            //! Автор последнего изменения уже знает итоговое состояние
+            Map<AccessLevel, List<String>> usernamesByLevel = getRecipients(taskId).stream()
+                    .filter(recipient -> !recipient.userId().equals(event.userId()))
+                    .collect(Collectors.groupingBy(TaskRecipient::accessLevel,
+                            Collectors.mapping(TaskRecipient::username, Collectors.toList())));
+
+            usernamesByLevel.forEach((accessLevel, usernames) -> {
+                Message<?> message = messagingTemplate.getMessageConverter()
+                        .toMessage(TaskUpdateDTO.fromEntity(update, accessLevel), null);
+                if (message == null) {
+                    log.error("Failed to serialize task update for task {}", taskId);
+                    return;
+                }
+
+                for (String username : usernames) {
+                    try {
+                        messagingTemplate.send(userDestination(username, taskId), message);
+                    } catch (Exception e) {
+                        log.error("Failed to send task update for task {} to user {}: {}",
+                                taskId, username, e.getMessage());
+                    }
+                }
+            });
+            log.debug("Sent task update for task {} to {} access levels", taskId, usernamesByLevel.size());
+        } catch (Exception e) {
+            log.error("Failed to dispatch task update for task {}: {}", taskId, e.getMessage());
+        }
+    }
+
+    private List<TaskRecipient> getRecipients(Long taskId) {
+        return recipients.get(taskId, this::loadRecipients);
+    }
+
+    private List<TaskRecipient> loadRecipients(Long taskId) {
+        Optional<Task> taskOpt = taskRepository.findTaskWithUserById(taskId);
+        if (taskOpt.isEmpty()) {
+            return List.of();
+        }
+
+        List<TaskRecipient> result = new ArrayList<>();
+        Task task = taskOpt.get();
+        result.add(new TaskRecipient(task.getUser().getId(), task.getUser().getUsername(), AccessLevel.OWNER));
+        for (TaskAccess access : taskAccessRepository.findByTaskId(taskId)) {
+            result.add(new TaskRecipient(access.getUser().getId(), access.getUser().getUsername(), access.getAccessLevel()));
+        }
+        return List.copyOf(result);
+    }
+
+    //! То же преобразование, что и в SimpMessagingTemplate.convertAndSendToUser
+    private String userDestination(String username, Long taskId) {
+        return messagingTemplate.getUserDestinationPrefix()
+                + StringUtils.replace(username, "/", "%2F")
+                + TASK_UPDATES_DESTINATION + taskId;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleAccessGranted(TaskAccessGrantedEvent event) {
+        recipients.invalidate(event.taskAccess().getTask().getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleAccessLevelChanged(AccessLevelChangedEvent event) {
+        recipients.invalidate(event.taskAccess().getTask().getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleAccessRemoved(AccessLevelRemovedEvent event) {
+        recipients.invalidate(event.taskAccess().getTask().getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTaskDeleted(TaskDeletedEvent event) {
+        recipients.invalidateAll(event.taskIds());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -1,66 +1,64 @@
 package edu.juanoff.taskmanager.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import edu.juanoff.taskmanager.dto.user.UserAchievementResponseDTO;
-import edu.juanoff.taskmanager.entity.Achievement;
-import edu.juanoff.taskmanager.entity.User;
 import edu.juanoff.taskmanager.entity.UserAchievement;
-import edu.juanoff.taskmanager.event.AchievementCreatedEvent;
 import edu.juanoff.taskmanager.event.AchievementsUpdatedEvent;
-import edu.juanoff.taskmanager.event.UserCreatedEvent;
 import edu.juanoff.taskmanager.handler.*;
 import edu.juanoff.taskmanager.mapper.UserAchievementMapper;
+import edu.juanoff.taskmanager.repository.UserAchievementBatchRepository;
+import edu.juanoff.taskmanager.repository.UserAchievementBatchRepository.ProgressCorrection;
 import edu.juanoff.taskmanager.repository.UserAchievementRepository;
+import edu.juanoff.taskmanager.util.CacheNames;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.event.EventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserAchievementService {
 
+    private static final int MAX_CONFLICT_ATTEMPTS = 3;
+
     private final UserAchievementRepository userAchievementRepository;
+    private final UserAchievementBatchRepository userAchievementBatchRepository;
     private final UserAchievementMapper userAchievementMapper;
     private final List<AchievementHandler> achievementHandlerList;
-    private Map<String, AchievementHandler> achievementHandlers;
+    private final CacheManager cacheManager;
+    private final NotificationService notificationService;
 
-    private final UserService userService;
-    private final AchievementService achievementService;
+    //! action -> (название достижения -> обработчик)
+    private Map<String, Map<String, AchievementHandler>> handlersByAction;
+    //! Незавершенные достижения пользователя; завершенные из списка удаляются
+    private Cache<Long, List<UserAchievement>> incompleteAchievements;
 
     @PostConstruct
+    @SuppressWarnings("unchecked")
     public void initAchievementHandlers() {
-        achievementHandlers = new HashMap<>();
-        achievementHandlers.put(AchievementName.NEWBIE.getDisplayName(), findHandler(NewbieAchievementHandler.class));
-        achievementHandlers.put(AchievementName.DEADLINE_MASTER.getDisplayName(), findHandler(DeadlineMasterAchievementHandler.class));
-        achievementHandlers.put(AchievementName.SPRINTER.getDisplayName(), findHandler(SprintAchievementHandler.class));
-        achievementHandlers.put(AchievementName.PLANNER.getDisplayName(), findHandler(PlannerAchievementHandler.class));
-        achievementHandlers.put(AchievementName.CATEGORIZER.getDisplayName(), findHandler(CategorizerAchievementHandler.class));
-        achievementHandlers.put(AchievementName.PRIORITY_GURU.getDisplayName(), findHandler(PriorityGuruAchievementHandler.class));
-    }
-
-    //achievementHandlers.put(AchievementName.SUBTASK_KING, findHandler(SubtaskKingAchievementHandler.class));
-    //achievementHandlers.put(AchievementName.NIGHT_WATCHER, findHandler(NightWatcherAchievementHandler.class));
-    //achievementHandlers.put(AchievementName.EPIC_FINISH, findHandler(EpicFinishAchievementHandler.class));
-
-    private AchievementHandler findHandler(Class<? extends AchievementHandler> handlerClass) {
-        return achievementHandlerList.stream()
-                .filter(handlerClass::isInstance)
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("Handler not found for " + handlerClass.getSimpleName()));
-    }
+        Map<String, Map<String, AchievementHandler>> index = new HashMap<>();
+        for (AchievementHandler handler : achievementHandlerList) {
+            for (String action : handler.actions()) {
+                index.computeIfAbsent(action, key -> new HashMap<>()).put(handler.name().getDisplayName(), handler);
+            }
+        }
+        handlersByAction = index;
 
-    @Transactional
-    public void createUserAchievement(User user, Achievement savedAchievement) {
-        UserAchievement userAchievement = UserAchievement.builder()
-                .user(user)
-                .achievement(savedAchievement)
-                .build();
-        userAchievementRepository.save(userAchievement);
+        incompleteAchievements = (Cache<Long, List<UserAchievement>>) cacheManager
+                .getCache(CacheNames.INCOMPLETE_ACHIEVEMENTS)
+                .getNativeCache();
     }
 
     @Transactional(readOnly = true)
@@ -71,35 +69,110 @@ public class UserAchievementService {
                 .toList();
     }
 
-    public void processAchievementUpdate(AchievementsUpdatedEvent event) {
-        List<UserAchievement> userAchievements = userAchievementRepository.findByUserId(event.userId());
+    //! События одного пользователя приходят пачкой из AchievementLaneDispatcher в порядке публикации.
+    //! Порядок гарантирован только внутри одного узла, поэтому прогресс записывается условно
+    //! (строка не изменилась после чтения), а при конфликте события применяются заново к свежим строкам.
+    public void processAchievementUpdates(Long userId, List<AchievementsUpdatedEvent> events) {
+        if (events.stream().noneMatch(event -> handlersByAction.containsKey(event.action()))) {
+            return;
+        }
 
-        for (UserAchievement userAchievement : userAchievements) {
-            if (!userAchievement.getCompleted()) {
-                AchievementHandler handler = achievementHandlers.get(userAchievement.getAchievement().getName());
-                if (handler != null) {
-                    handler.handle(userAchievement, event.currentTask(), event.newTask(), event.action());
-                    userAchievementRepository.save(userAchievement);
-                }
+        List<UserAchievement> incomplete = incompleteAchievements.get(userId,
+                id -> new ArrayList<>(userAchievementRepository.findIncompleteWithAchievementAndUserByUserId(id)));
+        ProgressChanges changes;
+        synchronized (incomplete) {
+            changes = applyEvents(incomplete, events);
+            incomplete.removeIf(UserAchievement::getCompleted);
+        }
+
+        List<UserAchievement> completed = new ArrayList<>();
+        for (int attempt = 1; !changes.isEmpty(); attempt++) {
+            Set<Long> applied;
+            try {
+                applied = userAchievementBatchRepository.updateProgressIfUnchanged(changes.corrections());
+            } catch (RuntimeException e) {
+                //! Кэш уже содержит изменения, которых нет в БД
+                incompleteAchievements.invalidate(userId);
+                throw e;
+            }
+            changes.completedNow().stream()
+                    .filter(userAchievement -> applied.contains(userAchievement.getId()))
+                    .forEach(completed::add);
+            if (applied.size() == changes.corrections().size()) {
+                break;
+            }
+
+            //! Строки изменил другой узел: кэш расходится с БД
+            incompleteAchievements.invalidate(userId);
+            if (attempt >= MAX_CONFLICT_ATTEMPTS) {
+                log.warn("Achievement progress for user {} kept conflicting, {} updates dropped",
+                        userId, changes.corrections().size() - applied.size());
+                break;
             }
+            Set<Long> conflicted = changes.corrections().stream()
+                    .map(ProgressCorrection::id)
+                    .filter(id -> !applied.contains(id))
+                    .collect(Collectors.toSet());
+            List<UserAchievement> fresh = userAchievementRepository.findIncompleteWithAchievementAndUserByUserId(userId)
+                    .stream()
+                    .filter(userAchievement -> conflicted.contains(userAchievement.getId()))
+                    .toList();
+            changes = applyEvents(fresh, events);
         }
+
+        //! Уведомляем только о сохраненном завершении: второй узел с тем же переходом получит конфликт
+        completed.forEach(notificationService::createNotificationForAchievement);
     }
 
-    @EventListener
-    @Transactional
-    public void handleAchievementCreated(AchievementCreatedEvent event) {
-        List<User> users = userService.getAllUsers();
-        for (User user : users) {
-            createUserAchievement(user, event.achievement());
+    private record ProgressChanges(List<ProgressCorrection> corrections, List<UserAchievement> completedNow) {
+
+        boolean isEmpty() {
+            return corrections.isEmpty();
         }
     }
 
-    @EventListener
-    @Transactional
-    public void handleUserCreated(UserCreatedEvent event) {
-        List<Achievement> achievements = achievementService.getAllAchievementEntities();
-        for (Achievement achievement : achievements) {
-            createUserAchievement(event.user(), achievement);
+    private ProgressChanges applyEvents(List<UserAchievement> achievements, List<AchievementsUpdatedEvent> events) {
+        Map<Long, UserAchievement> changed = new LinkedHashMap<>();
+        Map<Long, ProgressCorrection> readState = new HashMap<>();
+        List<UserAchievement> completedNow = new ArrayList<>();
+
+        for (AchievementsUpdatedEvent event : events) {
+            Map<String, AchievementHandler> handlers = handlersByAction.getOrDefault(event.action(), Map.of());
+            for (UserAchievement userAchievement : achievements) {
+                AchievementHandler handler = handlers.get(userAchievement.getAchievement().getName());
+                if (handler == null || userAchievement.getCompleted()) {
+                    continue;
+                }
+
+                int progress = userAchievement.getProgress();
+                boolean completed = userAchievement.getCompleted();
+                readState.putIfAbsent(userAchievement.getId(),
+                        new ProgressCorrection(userAchievement.getId(), progress, completed, progress, completed));
+                handler.handle(userAchievement, event.currentTask(), event.newTask(), event.action());
+                if (progress != userAchievement.getProgress() || completed != userAchievement.getCompleted()) {
+                    changed.put(userAchievement.getId(), userAchievement);
+                }
+                if (!completed && userAchievement.getCompleted()) {
+                    completedNow.add(userAchievement);
+                }
+            }
         }
+
+        List<ProgressCorrection> corrections = changed.values().stream()
+                .map(userAchievement -> {
+                    ProgressCorrection read = readState.get(userAchievement.getId());
+                    return new ProgressCorrection(userAchievement.getId(), read.expectedProgress(),
+                            read.expectedCompleted(), userAchievement.getProgress(), userAchievement.getCompleted());
+                })
+                .toList();
+        return new ProgressChanges(corrections, completedNow);
+    }
+
+    public void evictIncompleteAchievements() {
+        incompleteAchievements.invalidateAll();
+    }
+
+    public void evictIncompleteAchievements(Collection<Long> userIds) {
+        incompleteAchievements.invalidateAll(userIds);
     }
 }
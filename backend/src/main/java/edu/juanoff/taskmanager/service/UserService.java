@@ -2,6 +2,7 @@ package edu.juanoff.taskmanager.service;
 
 import edu.juanoff.taskmanager.dto.notification.NotificationSettingsRequestDTO;
 import edu.juanoff.taskmanager.dto.user.*;
+import edu.juanoff.taskmanager.entity.NotificationSettings;
 import edu.juanoff.taskmanager.entity.User;
 import edu.juanoff.taskmanager.entity.UserSettings;
 import edu.juanoff.taskmanager.event.UserCreatedEvent;
@@ -139,14 +140,8 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    public String getNotificationSettingsByUserId(Long userId) {
-        User user = getUserById(userId);
-        return user.getSettings().getNotificationSettings();
-    }
-
-    @Transactional(readOnly = true)
-    public long getMaxTaskNotificationInterval() {
-        return userRepository.findMaxTaskNotificationInterval();
+    public NotificationSettings getNotificationSettingsByUserId(Long userId) {
+        return userSettingsService.getNotificationSettings(userId);
     }
 
     @Transactional
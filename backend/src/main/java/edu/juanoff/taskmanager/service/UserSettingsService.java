@@ -4,12 +4,18 @@ import edu.juanoff.taskmanager.dto.notification.NotificationSettingsRequestDTO;
 import edu.juanoff.taskmanager.entity.NotificationSettings;
 import edu.juanoff.taskmanager.entity.User;
 import edu.juanoff.taskmanager.entity.UserSettings;
-import edu.juanoff.taskmanager.exception.BusinessLogicException;
+import edu.juanoff.taskmanager.event.NotificationSettingsUpdatedEvent;
 import edu.juanoff.taskmanager.mapper.NotificationSettingsMapper;
 import edu.juanoff.taskmanager.repository.UserSettingsRepository;
+import edu.juanoff.taskmanager.util.CacheNames;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @Service
 @RequiredArgsConstructor
@@ -17,30 +23,24 @@ public class UserSettingsService {
 
     private final UserSettingsRepository userSettingsRepository;
     private final NotificationSettingsMapper notificationSettingsMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public UserSettings createDefaultSettings(User user) {
-        NotificationSettings defaultNotification = new NotificationSettings();
-
-        UserSettings settings = UserSettings.builder()
+        return UserSettings.builder()
                 .user(user)
                 .build();
-        settings.setNotificationSettingsObj(defaultNotification);
-
-        return settings;
     }
 
     @Transactional
     public void updateNotificationSettings(User user, NotificationSettingsRequestDTO ns) {
         NotificationSettings notificationSettings = notificationSettingsMapper.toEntity(ns);
         UserSettings userSettings = getUserSettingsByUser(user);
-
-        boolean success = userSettings.setNotificationSettingsObj(notificationSettings);
-        if (!success) {
-            throw new BusinessLogicException("Couldn't save notification settings");
-        }
+        userSettings.setNotificationSettings(notificationSettings);
 
         userSettingsRepository.save(userSettings);
+
+        eventPublisher.publishEvent(new NotificationSettingsUpdatedEvent(user.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -50,4 +50,17 @@ public class UserSettingsService {
                         .user(user)
                         .build());
     }
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheNames.NOTIFICATION_SETTINGS, key = "#userId")
+    public NotificationSettings getNotificationSettings(Long userId) {
+        return userSettingsRepository.findNotificationSettingsByUserId(userId)
+                .orElseGet(NotificationSettings::new);
+    }
+
+    //! Кэш сбрасывается только после коммита, иначе параллельное чтение закэширует старые настройки
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @CacheEvict(value = CacheNames.NOTIFICATION_SETTINGS, key = "#event.userId()")
+    public void handleNotificationSettingsUpdated(NotificationSettingsUpdatedEvent event) {
+    }
 }
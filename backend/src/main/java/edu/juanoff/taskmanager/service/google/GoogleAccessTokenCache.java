@@ -0,0 +1,106 @@
+package edu.juanoff.taskmanager.service.google;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import edu.juanoff.taskmanager.event.GoogleTokenChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+//! Расшифрованные access-токены Google по пользователю. Запись живет до expiresAt минус expiry-skew,
+//! ошибка получения токена кэшируется на failure-ttl. Загрузка для одного пользователя выполняется
+//! одним потоком: параллельные вызовы ждут ее результат (single-flight), поэтому refresh не дублируется.
+@Component
+@Slf4j
+public class GoogleAccessTokenCache {
+
+    private final Cache<Long, CachedToken> cache;
+    private final Duration expirySkew;
+
+    public GoogleAccessTokenCache(
+            @Value("${google.token-cache.expiry-skew:60s}") Duration expirySkew,
+            @Value("${google.token-cache.failure-ttl:30s}") Duration failureTtl,
+            @Value("${google.token-cache.maximum-size:10000}") long maximumSize
+    ) {
+        if (expirySkew.isNegative()) {
+            throw new IllegalArgumentException("expirySkew must not be negative");
+        }
+        if (failureTtl.isNegative() || failureTtl.isZero()) {
+            throw new IllegalArgumentException("failureTtl must be greater than 0");
+        }
+
+        this.expirySkew = expirySkew;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(expirySkew, failureTtl))
+                .recordStats()
+                .build();
+    }
+
+    //! accessToken == null означает закэшированную ошибку
+    public record CachedToken(String accessToken, LocalDateTime expiresAt, GoogleCalendarException failure) {
+
+        public static CachedToken of(String accessToken, LocalDateTime expiresAt) {
+            return new CachedToken(accessToken, expiresAt, null);
+        }
+
+        public static CachedToken failed(GoogleCalendarException failure) {
+            return new CachedToken(null, null, failure);
+        }
+    }
+
+    private record TokenExpiry(Duration expirySkew, Duration failureTtl) implements Expiry<Long, CachedToken> {
+
+        @Override
+        public long expireAfterCreate(Long userId, CachedToken token, long currentTime) {
+            if (token.failure() != null) {
+                return failureTtl.toNanos();
+            }
+            Duration untilExpiry = Duration.between(LocalDateTime.now(), token.expiresAt()).minus(expirySkew);
+            return Math.max(0, untilExpiry.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Long userId, CachedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(userId, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long userId, CachedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public String get(Long userId, Function<Long, CachedToken> loader) {
+        CachedToken token = cache.get(userId, id -> {
+            try {
+                return loader.apply(id);
+            } catch (GoogleCalendarException e) {
+                log.warn("Caching Google token failure for user {}: {}", id, e.getMessage());
+                return CachedToken.failed(e);
+            }
+        });
+        if (token.failure() != null) {
+            throw new GoogleCalendarException(token.failure().getMessage(), token.failure());
+        }
+        return token.accessToken();
+    }
+
+    //! Токен обновляется заранее, иначе запись с почти истекшим токеном сразу устаревала бы в кэше
+    public boolean needsRefresh(LocalDateTime expiresAt) {
+        return expiresAt.minus(expirySkew).isBefore(LocalDateTime.now());
+    }
+
+    //! fallbackExecution: событие из callback/disconnect может прийти и вне транзакции
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleTokenChanged(GoogleTokenChangedEvent event) {
+        cache.invalidate(event.userId());
+    }
+}
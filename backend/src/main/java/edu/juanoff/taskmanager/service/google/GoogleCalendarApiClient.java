@@ -1,14 +1,20 @@
 package edu.juanoff.taskmanager.service.google;
 
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.GenericUrl;
 import com.google.api.client.util.DateTime;
 import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.Events;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -16,8 +22,51 @@ import java.util.List;
 @Slf4j
 public class GoogleCalendarApiClient {
 
+    private static final String BATCH_PATH = "batch/calendar/v3";
+    private static final int LIST_PAGE_SIZE = 250;
+    private static final int SYNC_TOKEN_EXPIRED = 410;
+
     private final Calendar calendarService;
 
+    //! nextSyncToken приходит только на последней странице выдачи
+    public record EventChanges(List<Event> events, String nextSyncToken, boolean fullSync) {
+    }
+
+    @FunctionalInterface
+    public interface BatchBuilder {
+        void queue(BatchRequest batch) throws IOException;
+    }
+
+    //! Без @Retry: повтор всего пакета продублировал бы уже выполненные запросы,
+    //! поэтому GoogleCalendarPushEngine повторяет только запросы без ответа.
+    //! Токен передается заголовком внешнего запроса, он действует на все части пакета.
+    public void executeBatch(String accessToken, BatchBuilder builder) throws IOException {
+        BatchRequest batch = calendarService.batch(request ->
+                request.getHeaders().setAuthorization("Bearer " + accessToken));
+        batch.setBatchUrl(new GenericUrl(calendarService.getRootUrl() + BATCH_PATH));
+        builder.queue(batch);
+        if (batch.size() > 0) {
+            log.info("Executing calendar batch of {} requests", batch.size());
+            batch.execute();
+        }
+    }
+
+    public void queueInsert(BatchRequest batch, String calendarId, Event event,
+                            JsonBatchCallback<Event> callback) throws IOException {
+        calendarService.events().insert(calendarId, event).queue(batch, callback);
+    }
+
+    public void queueDelete(BatchRequest batch, String calendarId, String eventId,
+                            JsonBatchCallback<Void> callback) throws IOException {
+        calendarService.events().delete(calendarId, eventId).queue(batch, callback);
+    }
+
+    //! PATCH меняет только переданные поля, поэтому предварительный GET события не нужен
+    public void queuePatch(BatchRequest batch, String calendarId, String eventId, Event event,
+                           JsonBatchCallback<Event> callback) throws IOException {
+        calendarService.events().patch(calendarId, eventId, event).queue(batch, callback);
+    }
+
     @Retry(name = "googleApi")
     public Event createEvent(String calendarId, Event event, String accessToken) throws IOException {
         log.info("Creating event in calendar: {}", calendarId);
@@ -42,14 +91,48 @@ public class GoogleCalendarApiClient {
                 .execute();
     }
 
+    //! С syncToken возвращаются только изменения с прошлой синхронизации (включая отмененные события).
+    //! Истекший токен (410 Gone) сбрасывается, и выполняется полная выгрузка начиная с timeMin.
     @Retry(name = "googleApi")
-    public List<Event> listEvents(String calendarId, String accessToken, long timeMin) throws IOException {
-        log.info("Listing events from calendar: {}", calendarId);
-        return calendarService.events().list(calendarId)
-                .setOauthToken(accessToken)
-                .setTimeMin(new DateTime(timeMin))
-                .execute()
-                .getItems();
+    public EventChanges listChangedEvents(String calendarId, String accessToken, String syncToken,
+                                          long timeMin) throws IOException {
+        if (syncToken != null) {
+            try {
+                return listEventPages(calendarId, accessToken, syncToken, timeMin);
+            } catch (GoogleJsonResponseException e) {
+                if (e.getStatusCode() != SYNC_TOKEN_EXPIRED) {
+                    throw e;
+                }
+                log.info("Sync token for calendar {} expired, falling back to full sync", calendarId);
+            }
+        }
+        return listEventPages(calendarId, accessToken, null, timeMin);
+    }
+
+    private EventChanges listEventPages(String calendarId, String accessToken, String syncToken,
+                                        long timeMin) throws IOException {
+        log.info("Listing {} events from calendar: {}", syncToken == null ? "all" : "changed", calendarId);
+        List<Event> events = new ArrayList<>();
+        String pageToken = null;
+        Events page;
+        do {
+            Calendar.Events.List request = calendarService.events().list(calendarId)
+                    .setOauthToken(accessToken)
+                    .setMaxResults(LIST_PAGE_SIZE)
+                    .setPageToken(pageToken);
+            if (syncToken == null) {
+                request.setTimeMin(new DateTime(timeMin));
+            } else {
+                request.setSyncToken(syncToken);
+            }
+            page = request.execute();
+            if (page.getItems() != null) {
+                events.addAll(page.getItems());
+            }
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+
+        return new EventChanges(events, page.getNextSyncToken(), syncToken == null);
     }
 
     @Retry(name = "googleApi")
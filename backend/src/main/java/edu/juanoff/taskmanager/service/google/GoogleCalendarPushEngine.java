@@ -0,0 +1,350 @@
+package edu.juanoff.taskmanager.service.google;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
+import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.repository.TaskSyncBatchRepository;
+import edu.juanoff.taskmanager.repository.TaskSyncBatchRepository.TaskSyncUpdate;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+//! Выгрузка задач в Google Calendar пакетами (batch) по batch-size запросов.
+//! Пакеты выполняются на виртуальных потоках, одновременно не больше max-concurrent-batches
+//! на все синхронизации сразу. Метаданные задач записываются одним batch UPDATE в конце.
+//! Повтор пакета отправляет только запросы без ответа или с временной ошибкой (429/5xx), а новые события
+//! создаются с id, сгенерированным на клиенте: повторная вставка уже созданного события вернет 409, а не дубликат.
+@Component
+@Slf4j
+public class GoogleCalendarPushEngine {
+
+    public static final String PRIMARY_CALENDAR = "primary";
+    //! Ограничение Calendar API на число запросов в одном пакете
+    private static final int MAX_BATCH_SIZE = 50;
+    private static final int CONFLICT = 409;
+
+    private final GoogleCalendarApiClient calendarApiClient;
+    private final TaskSyncBatchRepository taskSyncBatchRepository;
+    private final int batchSize;
+    private final int batchAttempts;
+    private final long batchRetryMillis;
+    private final Semaphore batchPermits;
+    private final ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+
+    public GoogleCalendarPushEngine(
+            GoogleCalendarApiClient calendarApiClient,
+            TaskSyncBatchRepository taskSyncBatchRepository,
+            @Value("${google.calendar.sync.batch-size:50}") int batchSize,
+            @Value("${google.calendar.sync.max-concurrent-batches:4}") int maxConcurrentBatches,
+            @Value("${google.calendar.sync.batch-attempts:3}") int batchAttempts,
+            @Value("${google.calendar.sync.batch-retry-ms:500}") long batchRetryMillis
+    ) {
+        if (batchSize <= 0 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        if (maxConcurrentBatches <= 0) {
+            throw new IllegalArgumentException("maxConcurrentBatches must be greater than 0");
+        }
+        if (batchAttempts <= 0 || batchRetryMillis < 0) {
+            throw new IllegalArgumentException("batchAttempts must be greater than 0 and batchRetryMillis not negative");
+        }
+
+        this.calendarApiClient = calendarApiClient;
+        this.taskSyncBatchRepository = taskSyncBatchRepository;
+        this.batchSize = batchSize;
+        this.batchAttempts = batchAttempts;
+        this.batchRetryMillis = batchRetryMillis;
+        this.batchPermits = new Semaphore(maxConcurrentBatches);
+    }
+
+    //! Отмена проверяется перед каждым пакетом, прогресс сообщается после каждого выполненного пакета
+    public interface PushListener {
+        boolean isCancelled();
+
+        void onBatchCompleted(int pushed, int failed);
+    }
+
+    @FunctionalInterface
+    private interface ChunkAction<T> {
+        void execute(List<T> chunk) throws IOException;
+    }
+
+    //! Колбэк запроса добавляет элемент в resolved, когда ответ окончательный
+    @FunctionalInterface
+    private interface RequestQueuer<T> {
+        void queue(BatchRequest batch, T item, Set<T> resolved) throws IOException;
+    }
+
+    private record PushResults(Queue<TaskSyncUpdate> synced, Queue<Task> missing, Queue<String> errors) {
+        private PushResults() {
+            this(new ConcurrentLinkedQueue<>(), new ConcurrentLinkedQueue<>(), new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    //! Возвращает все успешно выгруженные задачи. syncStartedAt - момент до выборки задач,
+    //! он записывается в lastSyncedAt, чтобы изменения после чтения попали в следующую синхронизацию
+    public List<TaskSyncUpdate> pushTasks(List<Task> tasks, String accessToken, PushListener listener,
+                                          LocalDateTime syncStartedAt) throws IOException {
+        PushResults results = new PushResults();
+        try {
+            runBatches(tasks, listener::isCancelled,
+                    chunk -> executeBatch(chunk, accessToken, listener, results));
+            //! Событие удалили в календаре: создаем заново вторым проходом
+            if (!results.missing().isEmpty()) {
+                List<Task> recreate = results.missing().stream()
+                        .peek(task -> task.setGoogleEventId(null))
+                        .toList();
+                results.missing().clear();
+                runBatches(recreate, listener::isCancelled,
+                        chunk -> executeBatch(chunk, accessToken, listener, results));
+            }
+        } finally {
+            //! Успешные операции фиксируем в любом случае, иначе следующая синхронизация создаст дубликаты событий
+            if (!results.synced().isEmpty()) {
+                taskSyncBatchRepository.updateSyncMetadata(new ArrayList<>(results.synced()), syncStartedAt);
+            }
+        }
+
+        if (listener.isCancelled()) {
+            throw new GoogleCalendarException("Sync cancelled by user");
+        }
+        if (!results.errors().isEmpty()) {
+            throw new IOException(results.errors().size() + " of " + tasks.size() +
+                    " calendar operations failed, first: " + results.errors().peek());
+        }
+
+        log.info("Pushed {} tasks to calendar", results.synced().size());
+        return new ArrayList<>(results.synced());
+    }
+
+    //! Удаление событий теми же пакетами; уже удаленные в календаре события (404/410) пропускаются
+    public void deleteEvents(List<String> eventIds, String accessToken) throws IOException {
+        Queue<String> errors = new ConcurrentLinkedQueue<>();
+        runBatches(eventIds, () -> false, chunk -> {
+            List<String> unresolved = executeWithRetry(chunk, accessToken, (batch, eventId, resolved) ->
+                    calendarApiClient.queueDelete(batch, PRIMARY_CALENDAR, eventId, new JsonBatchCallback<>() {
+                        @Override
+                        public void onSuccess(Void content, HttpHeaders responseHeaders) {
+                            resolved.add(eventId);
+                            log.debug("Deleted event {} during undo", eventId);
+                        }
+
+                        @Override
+                        public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                            if (isRetryable(error)) {
+                                return;
+                            }
+                            resolved.add(eventId);
+                            if (error.getCode() == 404 || error.getCode() == 410) {
+                                log.warn("Event {} not found during undo, skipping", eventId);
+                                return;
+                            }
+                            errors.add("event " + eventId + ": " + error.getCode() + " " + error.getMessage());
+                        }
+                    }));
+            unresolved.forEach(eventId -> errors.add("event " + eventId + ": no result after " + batchAttempts + " attempts"));
+        });
+
+        if (!errors.isEmpty()) {
+            throw new IOException(errors.size() + " of " + eventIds.size() +
+                    " calendar deletions failed, first: " + errors.peek());
+        }
+        log.info("Deleted {} events from calendar", eventIds.size());
+    }
+
+    private <T> void runBatches(List<T> items, BooleanSupplier cancelled, ChunkAction<T> action) throws IOException {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += batchSize) {
+            List<T> chunk = items.subList(from, Math.min(from + batchSize, items.size()));
+            futures.add(virtualThreads.submit(() -> {
+                if (cancelled.getAsBoolean()) {
+                    return null;
+                }
+                batchPermits.acquire();
+                try {
+                    action.execute(chunk);
+                } finally {
+                    batchPermits.release();
+                }
+                return null;
+            }));
+        }
+
+        IOException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(true));
+                throw new GoogleCalendarException("Sync interrupted", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void executeBatch(List<Task> chunk, String accessToken, PushListener listener,
+                              PushResults results) throws IOException {
+        //! id новых событий выбираются один раз на задачу и переиспользуются во всех повторах
+        Map<Task, String> clientEventIds = new IdentityHashMap<>();
+        chunk.stream()
+                .filter(task -> task.getGoogleEventId() == null)
+                .forEach(task -> clientEventIds.put(task, newEventId()));
+
+        AtomicInteger pushed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<Task> unresolved;
+        try {
+            unresolved = executeWithRetry(chunk, accessToken, (batch, task, resolved) -> {
+                String clientEventId = clientEventIds.get(task);
+                JsonBatchCallback<Event> callback = callback(task, clientEventId, resolved, results, pushed, failed);
+                if (clientEventId != null) {
+                    calendarApiClient.queueInsert(batch, PRIMARY_CALENDAR, toEvent(task).setId(clientEventId), callback);
+                } else {
+                    calendarApiClient.queuePatch(batch, PRIMARY_CALENDAR, task.getGoogleEventId(), toEvent(task), callback);
+                }
+            });
+        } catch (IOException e) {
+            listener.onBatchCompleted(pushed.get(), chunk.size() - pushed.get());
+            throw e;
+        }
+
+        for (Task task : unresolved) {
+            results.errors().add("task " + task.getId() + ": no result after " + batchAttempts + " attempts");
+            failed.incrementAndGet();
+        }
+        listener.onBatchCompleted(pushed.get(), failed.get());
+    }
+
+    //! Возвращает элементы, оставшиеся без окончательного ответа после всех попыток.
+    //! Если пакет не выполнился и на последней попытке, пробрасывает ошибку
+    private <T> List<T> executeWithRetry(List<T> items, String accessToken, RequestQueuer<T> queuer) throws IOException {
+        List<T> pending = items;
+        for (int attempt = 1; ; attempt++) {
+            Set<T> resolved = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<T> attemptItems = pending;
+            IOException failure = null;
+            try {
+                calendarApiClient.executeBatch(accessToken, batch -> {
+                    for (T item : attemptItems) {
+                        queuer.queue(batch, item, resolved);
+                    }
+                });
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            pending = attemptItems.stream().filter(item -> !resolved.contains(item)).toList();
+            if (pending.isEmpty()) {
+                return List.of();
+            }
+            if (attempt >= batchAttempts) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return pending;
+            }
+
+            log.warn("Retrying {} of {} calendar requests without result, attempt {}",
+                    pending.size(), items.size(), attempt + 1);
+            try {
+                Thread.sleep(batchRetryMillis * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GoogleCalendarException("Sync interrupted", e);
+            }
+        }
+    }
+
+    private JsonBatchCallback<Event> callback(Task task, String clientEventId, Set<Task> resolved, PushResults results,
+                                              AtomicInteger pushed, AtomicInteger failed) {
+        return new JsonBatchCallback<>() {
+            @Override
+            public void onSuccess(Event event, HttpHeaders responseHeaders) {
+                resolved.add(task);
+                results.synced().add(new TaskSyncUpdate(task.getId(), event.getId(), PRIMARY_CALENDAR,
+                        clientEventId != null));
+                pushed.incrementAndGet();
+            }
+
+            @Override
+            public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                if (isRetryable(error)) {
+                    log.warn("Calendar request for task {} will be retried: {} {}",
+                            task.getId(), error.getCode(), error.getMessage());
+                    return;
+                }
+                resolved.add(task);
+                //! Событие с этим id уже создано предыдущей попыткой, ответ на которую потерялся
+                if (clientEventId != null && error.getCode() == CONFLICT) {
+                    results.synced().add(new TaskSyncUpdate(task.getId(), clientEventId, PRIMARY_CALENDAR, true));
+                    pushed.incrementAndGet();
+                    return;
+                }
+                if (clientEventId == null && (error.getCode() == 404 || error.getCode() == 410)) {
+                    log.warn("Event {} not found for task {}. Creating new event.", task.getGoogleEventId(), task.getId());
+                    results.missing().add(task);
+                    return;
+                }
+                log.error("Calendar request for task {} failed: {} {}", task.getId(), error.getCode(), error.getMessage());
+                results.errors().add("task " + task.getId() + ": " + error.getCode() + " " + error.getMessage());
+                failed.incrementAndGet();
+            }
+        };
+    }
+
+    private boolean isRetryable(GoogleJsonError error) {
+        return error.getCode() == 429 || error.getCode() >= 500;
+    }
+
+    //! Calendar API допускает в id символы base32hex (0-9, a-v); шестнадцатеричный UUID им удовлетворяет
+    private String newEventId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    private Event toEvent(Task task) {
+        return new Event()
+                .setSummary(task.getTitle())
+                .setDescription(task.getDescription())
+                .setStart(createEventDateTime(task.getDueDate()))
+                .setEnd(createEventDateTime(task.getDueDate().plusHours(1)));
+    }
+
+    private EventDateTime createEventDateTime(LocalDateTime dateTime) {
+        return new EventDateTime().setDateTime(
+                new DateTime(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        virtualThreads.shutdown();
+    }
+}
@@ -1,78 +1,85 @@
 package edu.juanoff.taskmanager.service.google;
 
-import com.google.api.client.util.DateTime;
 import com.google.api.services.calendar.model.Event;
-import com.google.api.services.calendar.model.EventDateTime;
 import edu.juanoff.taskmanager.entity.SyncHistory;
+import edu.juanoff.taskmanager.entity.SyncHistoryItem;
 import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.entity.User;
+import edu.juanoff.taskmanager.event.TaskScheduleChangedEvent;
+import edu.juanoff.taskmanager.repository.SyncHistoryItemRepository;
 import edu.juanoff.taskmanager.repository.SyncHistoryRepository;
 import edu.juanoff.taskmanager.repository.TaskRepository;
+import edu.juanoff.taskmanager.repository.TaskSyncBatchRepository;
+import edu.juanoff.taskmanager.repository.TaskSyncBatchRepository.TaskSyncUpdate;
+import edu.juanoff.taskmanager.security.AccessSnapshotService;
 import edu.juanoff.taskmanager.service.UserService;
+import edu.juanoff.taskmanager.service.google.GoogleCalendarApiClient.EventChanges;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
-import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GoogleCalendarService {
 
-    private static final String PRIMARY_CALENDAR = "primary";
+    private static final String PRIMARY_CALENDAR = GoogleCalendarPushEngine.PRIMARY_CALENDAR;
     private static final long LAST_30_DAYS_MILLIS = 30L * 24 * 60 * 60 * 1000;
+    private static final String CANCELLED_STATUS = "cancelled";
+    private static final int EVENT_ID_LOOKUP_CHUNK = 1000;
 
     private final GoogleCalendarApiClient calendarApiClient;
+    private final GoogleCalendarPushEngine pushEngine;
     private final GoogleTokenService tokenService;
     private final TaskRepository taskRepository;
     private final UserService userService;
     private final SyncHistoryRepository syncHistoryRepository;
+    private final SyncHistoryItemRepository syncHistoryItemRepository;
+    private final TaskSyncBatchRepository taskSyncBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AccessSnapshotService accessSnapshotService;
+
+    //! Отмена и прогресс относятся к задаче синхронизации одного пользователя
+    public interface SyncProgress extends GoogleCalendarPushEngine.PushListener {
+        void onPulled(int events);
+    }
 
-    private volatile boolean cancelSync = false;
-
-    @Transactional
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @RateLimiter(name = "googleSync")
-    public void syncTasks(Long userId) {
-        validateSyncNotCancelled(userId);
+    //! Без общей транзакции: HTTP-запросы к Calendar API не должны удерживать соединение с БД
+    public void syncTasks(Long userId, SyncProgress progress) {
+        validateSyncNotCancelled(userId, progress);
         log.info("Starting task synchronization for user: {}", userId);
 
         String accessToken = getAccessToken(userId);
-        List<String> eventIds = new ArrayList<>();
+        List<TaskSyncUpdate> synced = new ArrayList<>();
 
         try {
-            eventIds.addAll(syncTasksToCalendar(userId, accessToken));
-            syncCalendarToTasks(userId, accessToken);
-            saveSyncHistory(userId, eventIds, "COMPLETED");
+            synced.addAll(syncTasksToCalendar(userId, accessToken, progress));
+            validateSyncNotCancelled(userId, progress);
+            progress.onPulled(syncCalendarToTasks(userId, accessToken));
+            saveSyncHistory(userId, synced, "COMPLETED");
             log.info("Successfully synced tasks for user: {}", userId);
         } catch (IOException e) {
             log.error("Failed to sync tasks for user: {}", userId, e);
-            saveSyncHistory(userId, eventIds, "FAILED");
+            saveSyncHistory(userId, synced, "FAILED");
             throw new GoogleCalendarException("Failed to sync with Google Calendar", e);
         }
     }
 
-    public void cancelSync() {
-        cancelSync = true;
-        log.info("Sync cancellation requested");
-    }
-
-    public void resetCancelSync() {
-        cancelSync = false;
-        log.info("Sync cancellation reset");
-    }
-
-    @Transactional
+    //! Отменяются только созданные синхронизацией события: удаляются пакетами, связь с задачами
+    //! снимается одним UPDATE. Обновленные события существовали до синхронизации и не удаляются.
     @RateLimiter(name = "googleUndo")
     public void undoSync(Long userId) {
         SyncHistory history = syncHistoryRepository
@@ -82,8 +89,11 @@ public class GoogleCalendarService {
 
         String accessToken = getAccessToken(userId);
         try {
-            deleteCalendarEvents(history.getEventIds(), accessToken);
-            updateTasksAfterUndo(history.getEventIds());
+            List<String> createdEventIds = syncHistoryItemRepository
+                    .findEventIdsBySyncIdAndOperation(history.getId(), SyncHistoryItem.Operation.CREATED);
+            pushEngine.deleteEvents(createdEventIds, accessToken);
+            int cleared = taskRepository.clearSyncMetadataBySyncId(history.getId(), SyncHistoryItem.Operation.CREATED);
+            log.debug("Cleared Google event ID for {} tasks", cleared);
             history.setStatus("CANCELLED");
             syncHistoryRepository.save(history);
             log.info("Successfully undone sync for user: {}", userId);
@@ -93,8 +103,8 @@ public class GoogleCalendarService {
         }
     }
 
-    private void validateSyncNotCancelled(Long userId) {
-        if (cancelSync) {
+    private void validateSyncNotCancelled(Long userId, SyncProgress progress) {
+        if (progress.isCancelled()) {
             log.info("Sync cancelled for user: {}", userId);
             throw new GoogleCalendarException("Sync cancelled by user");
         }
@@ -102,164 +112,109 @@ public class GoogleCalendarService {
 
     private String getAccessToken(Long userId) {
         try {
-            return tokenService.getValidCredential(userId).getAccessToken();
+            return tokenService.getValidAccessToken(userId);
         } catch (Exception e) {
             log.error("Failed to get access token for user: {}", userId, e);
             throw new GoogleCalendarException("Failed to authenticate with Google Calendar", e);
         }
     }
 
-    private List<String> syncTasksToCalendar(Long userId, String accessToken) throws IOException {
-        List<Task> tasks = taskRepository.findByUserIdAndDueDateNotNull(userId);
-        List<String> eventIds = new ArrayList<>();
-
-        for (Task task : tasks) {
-            validateSyncNotCancelled(userId);
-            String eventId = task.getGoogleEventId() == null
-                    ? createCalendarEvent(task, accessToken)
-                    : updateCalendarEvent(task, accessToken);
-            if (eventId != null) {
-                eventIds.add(eventId);
-            }
-        }
-        return eventIds;
+    private List<TaskSyncUpdate> syncTasksToCalendar(Long userId, String accessToken,
+                                                     SyncProgress progress) throws IOException {
+        //! Время фиксируется до выборки: задача, измененная после чтения, останется "грязной"
+        LocalDateTime syncStartedAt = LocalDateTime.now();
+        List<Task> tasks = taskRepository.findTasksToPushByUserId(userId);
+        return pushEngine.pushTasks(tasks, accessToken, progress, syncStartedAt);
     }
 
-    private String createCalendarEvent(Task task, String accessToken) throws IOException {
-        Event event = new Event()
-                .setSummary(task.getTitle())
-                .setDescription(task.getDescription())
-                .setStart(createEventDateTime(task.getDueDate()))
-                .setEnd(createEventDateTime(task.getDueDate().plusHours(1)));
-
-        Event createdEvent = calendarApiClient.createEvent(PRIMARY_CALENDAR, event, accessToken);
-
-        task.setGoogleEventId(createdEvent.getId());
-        task.setCalendarId(PRIMARY_CALENDAR);
-        task.setLastSyncedAt(LocalDateTime.now());
-        taskRepository.save(task);
-
-        log.info("Created calendar event {} for task {}", createdEvent.getId(), task.getId());
-        return createdEvent.getId();
-    }
-
-    private String updateCalendarEvent(Task task, String accessToken) throws IOException {
-        try {
-            Event event = calendarApiClient.getEvent(PRIMARY_CALENDAR, task.getGoogleEventId(), accessToken);
-            event.setSummary(task.getTitle())
-                    .setDescription(task.getDescription())
-                    .setStart(createEventDateTime(task.getDueDate()))
-                    .setEnd(createEventDateTime(task.getDueDate().plusHours(1)));
-
-            calendarApiClient.updateEvent(PRIMARY_CALENDAR, task.getGoogleEventId(), event, accessToken);
-
-            task.setLastSyncedAt(LocalDateTime.now());
-            taskRepository.save(task);
+    private int syncCalendarToTasks(Long userId, String accessToken) throws IOException {
+        EventChanges changes = calendarApiClient.listChangedEvents(
+                PRIMARY_CALENDAR,
+                accessToken,
+                tokenService.getCalendarSyncToken(userId),
+                System.currentTimeMillis() - LAST_30_DAYS_MILLIS
+        );
 
-            log.info("Updated calendar event {} for task {}", task.getGoogleEventId(), task.getId());
-            return task.getGoogleEventId();
-        } catch (IOException e) {
-            if (e.getMessage().contains("404")) {
-                log.warn("Event {} not found for task {}. Creating new event.", task.getGoogleEventId(), task.getId());
-                task.setGoogleEventId(null);
-                return createCalendarEvent(task, accessToken);
+        //! Отмененные и целодневные события задачами не становятся
+        List<Event> timedEvents = changes.events().stream()
+                .filter(event -> !CANCELLED_STATUS.equals(event.getStatus()))
+                .filter(event -> event.getStart() != null && event.getStart().getDateTime() != null)
+                .toList();
+        Set<String> linkedEventIds = findLinkedEventIds(timedEvents);
+
+        LocalDateTime syncedAt = LocalDateTime.now();
+        List<Task> newTasks = new ArrayList<>();
+        User user = null;
+        for (Event event : timedEvents) {
+            if (linkedEventIds.add(event.getId())) {
+                if (user == null) {
+                    user = userService.getUserById(userId);
+                }
+                newTasks.add(createTaskFromEvent(user, event, syncedAt));
             }
-            throw e;
         }
-    }
+        if (!newTasks.isEmpty()) {
+            saveImportedTasks(userId, newTasks);
+        }
 
-    private void syncCalendarToTasks(Long userId, String accessToken) throws IOException {
-        List<Event> events = calendarApiClient.listEvents(
-                PRIMARY_CALENDAR, accessToken, System.currentTimeMillis() - LAST_30_DAYS_MILLIS
-        );
+        //! Токен сохраняется только после записи задач, иначе изменения из этой выдачи были бы потеряны
+        tokenService.saveCalendarSyncToken(userId, changes.nextSyncToken());
+        log.info("Pulled {} changed events ({} sync), created {} tasks for user: {}",
+                changes.events().size(), changes.fullSync() ? "full" : "incremental", newTasks.size(), userId);
+        return changes.events().size();
+    }
 
-        for (Event event : events) {
-            if (event.getStart().getDateTime() == null) {
-                log.debug("Skipping all-day event: {}", event.getId());
-                continue;
-            }
+    //! Событие публикуется в транзакции сохранения: напоминания создаются до коммита,
+    //! а движок дедлайнов подхватывает их после него. Снимок прав сбрасывается уже после коммита
+    private void saveImportedTasks(Long userId, List<Task> newTasks) {
+        transactionTemplate.executeWithoutResult(status -> {
+            taskRepository.saveAll(newTasks);
+            eventPublisher.publishEvent(new TaskScheduleChangedEvent(newTasks.stream().map(Task::getId).toList()));
+        });
+        accessSnapshotService.evict(userId);
+    }
 
-            if (taskRepository.findByGoogleEventId(event.getId()).isEmpty()) {
-                createTaskFromEvent(userId, event);
-            }
+    private Set<String> findLinkedEventIds(List<Event> events) {
+        List<String> eventIds = events.stream().map(Event::getId).toList();
+        Set<String> linked = new HashSet<>();
+        for (int from = 0; from < eventIds.size(); from += EVENT_ID_LOOKUP_CHUNK) {
+            linked.addAll(taskRepository.findLinkedGoogleEventIds(
+                    eventIds.subList(from, Math.min(from + EVENT_ID_LOOKUP_CHUNK, eventIds.size()))
+            ));
         }
+        return linked;
     }
 
-    private void createTaskFromEvent(Long userId, Event event) {
+    //! updatedAt совпадает с lastSyncedAt, чтобы созданная задача не выгружалась обратно в календарь
+    private Task createTaskFromEvent(User user, Event event, LocalDateTime syncedAt) {
         LocalDateTime dueDate = LocalDateTime.ofInstant(
                 Instant.ofEpochMilli(event.getStart().getDateTime().getValue()),
                 ZoneId.systemDefault()
         );
 
-        Task task = Task.builder()
+        return Task.builder()
                 .title(event.getSummary() != null ? event.getSummary() : "Untitled Event")
                 .description(event.getDescription())
                 .dueDate(dueDate)
                 .status(Task.StatusType.TO_DO)
                 .priority(Task.Priority.MEDIUM)
-                .user(userService.getUserById(userId))
+                .user(user)
                 .googleEventId(event.getId())
                 .calendarId(PRIMARY_CALENDAR)
-                .lastSyncedAt(LocalDateTime.now())
+                .lastSyncedAt(syncedAt)
+                .updatedAt(syncedAt)
                 .build();
-        taskRepository.save(task);
-
-        log.info("Created task {} from calendar event {}", task.getId(), event.getId());
     }
 
-    private void deleteCalendarEvents(String eventIds, String accessToken) throws IOException {
-        if (eventIds == null || eventIds.isEmpty()) {
-            return;
-        }
-
-        for (String eventId : eventIds.split(",")) {
-            if (!eventId.isEmpty()) {
-                try {
-                    calendarApiClient.deleteEvent(PRIMARY_CALENDAR, eventId, accessToken);
-                    log.debug("Deleted event {} during undo", eventId);
-                } catch (IOException e) {
-                    if (e.getMessage().contains("404")) {
-                        log.warn("Event {} not found during undo, skipping", eventId);
-                    } else {
-                        throw e;
-                    }
-                }
-            }
-        }
-    }
-
-    private void updateTasksAfterUndo(String eventIds) {
-        if (eventIds == null || eventIds.isEmpty()) {
-            return;
-        }
-
-        for (String eventId : eventIds.split(",")) {
-            if (!eventId.isEmpty()) {
-                Optional<Task> task = taskRepository.findByGoogleEventId(eventId);
-                task.ifPresent(t -> {
-                    t.setGoogleEventId(null);
-                    t.setCalendarId(null);
-                    t.setLastSyncedAt(null);
-                    taskRepository.save(t);
-                    log.debug("Cleared Google event ID for task {}", t.getId());
-                });
-            }
-        }
-    }
-
-    private void saveSyncHistory(Long userId, List<String> eventIds, String status) {
+    private void saveSyncHistory(Long userId, List<TaskSyncUpdate> synced, String status) {
         SyncHistory history = SyncHistory.builder()
                 .user(userService.getUserById(userId))
                 .syncTime(LocalDateTime.now())
-                .eventIds(String.join(",", eventIds))
                 .status(status)
                 .build();
         syncHistoryRepository.save(history);
-    }
-
-    private EventDateTime createEventDateTime(LocalDateTime dateTime) {
-        return new EventDateTime().setDateTime(
-                new DateTime(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
-        );
+        if (!synced.isEmpty()) {
+            taskSyncBatchRepository.insertHistoryItems(history.getId(), synced);
+        }
     }
 }
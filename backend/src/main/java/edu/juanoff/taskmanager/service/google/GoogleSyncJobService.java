@@ -0,0 +1,195 @@
+package edu.juanoff.taskmanager.service.google;
+
+import edu.juanoff.taskmanager.dto.google.GoogleSyncJobDTO;
+import edu.juanoff.taskmanager.dto.google.GoogleSyncJobDTO.Status;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//! Синхронизация с Google Calendar выполняется в фоне: запрос сразу получает id задачи.
+//! У пользователя не больше одной активной задачи, повторный запуск возвращает текущую.
+//! Прогресс отправляется пользователю в /topic/google-sync, отмена касается только его задачи.
+@Service
+@Slf4j
+public class GoogleSyncJobService {
+
+    private final GoogleCalendarService calendarService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    //! Последняя задача каждого пользователя
+    private final Map<Long, SyncJob> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    public GoogleSyncJobService(
+            GoogleCalendarService calendarService,
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${google.calendar.sync.job-threads:4}") int jobThreads,
+            @Value("${google.calendar.sync.job-queue-capacity:100}") int queueCapacity
+    ) {
+        if (jobThreads <= 0) {
+            throw new IllegalArgumentException("jobThreads must be greater than 0");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be greater than 0");
+        }
+
+        this.calendarService = calendarService;
+        this.messagingTemplate = messagingTemplate;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                jobThreads,
+                jobThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "GoogleSync-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    private final class SyncJob implements GoogleCalendarService.SyncProgress {
+        private final String jobId = UUID.randomUUID().toString();
+        private final Long userId;
+        private final String username;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger pushed = new AtomicInteger();
+        private final AtomicInteger pulled = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile Status status = Status.QUEUED;
+        private volatile boolean cancelled;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private SyncJob(Long userId, String username) {
+            this.userId = userId;
+            this.username = username;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void onBatchCompleted(int pushedCount, int failedCount) {
+            pushed.addAndGet(pushedCount);
+            failed.addAndGet(failedCount);
+            publish(this);
+        }
+
+        @Override
+        public void onPulled(int events) {
+            pulled.addAndGet(events);
+            publish(this);
+        }
+
+        private GoogleSyncJobDTO toDto() {
+            return new GoogleSyncJobDTO(jobId, status, pushed.get(), pulled.get(), failed.get(), error,
+                    startedAt, finishedAt);
+        }
+    }
+
+    @RateLimiter(name = "googleSync")
+    public GoogleSyncJobDTO startSync(Long userId, String username) {
+        SyncJob job = new SyncJob(userId, username);
+        SyncJob current = jobs.compute(userId,
+                (id, existing) -> existing != null && existing.toDto().isActive() ? existing : job);
+        if (current != job) {
+            log.info("Sync for user {} already in progress: {}", userId, current.jobId);
+            return current.toDto();
+        }
+
+        try {
+            executor.execute(() -> runSync(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(userId, job);
+            log.warn("Sync queue is full, rejecting sync for user: {}", userId);
+            throw new GoogleCalendarException("Too many sync jobs in progress, try again later");
+        }
+        log.info("Queued sync job {} for user: {}", job.jobId, userId);
+        return job.toDto();
+    }
+
+    public GoogleSyncJobDTO getJob(Long userId) {
+        SyncJob job = jobs.get(userId);
+        if (job == null) {
+            throw new EntityNotFoundException("Sync job not found for user id: " + userId);
+        }
+        return job.toDto();
+    }
+
+    //! Задача в очереди завершится сразу при запуске, выполняющаяся остановится перед следующим пакетом
+    public GoogleSyncJobDTO cancelSync(Long userId) {
+        SyncJob job = jobs.get(userId);
+        if (job == null || !job.toDto().isActive()) {
+            throw new EntityNotFoundException("No active sync job for user id: " + userId);
+        }
+        job.cancelled = true;
+        log.info("Sync cancellation requested for job {} of user: {}", job.jobId, userId);
+        return job.toDto();
+    }
+
+    private void runSync(SyncJob job) {
+        if (job.cancelled) {
+            finish(job, Status.CANCELLED, null);
+            return;
+        }
+
+        job.status = Status.RUNNING;
+        publish(job);
+        try {
+            calendarService.syncTasks(job.userId, job);
+            finish(job, job.cancelled ? Status.CANCELLED : Status.COMPLETED, null);
+        } catch (Exception e) {
+            if (job.cancelled) {
+                finish(job, Status.CANCELLED, null);
+            } else {
+                log.error("Sync job {} failed for user: {}", job.jobId, job.userId, e);
+                finish(job, Status.FAILED, e.getMessage());
+            }
+        }
+    }
+
+    private void finish(SyncJob job, Status status, String error) {
+        job.error = error;
+        job.finishedAt = LocalDateTime.now();
+        job.status = status;
+        log.info("Sync job {} for user {} finished with status {}", job.jobId, job.userId, status);
+        publish(job);
+    }
+
+    private void publish(SyncJob job) {
+        try {
+            messagingTemplate.convertAndSendToUser(job.username, "/topic/google-sync", job.toDto());
+        } catch (Exception e) {
+            log.warn("Failed to send sync progress to user {}: {}", job.userId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
 import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
 import edu.juanoff.taskmanager.entity.GoogleToken;
+import edu.juanoff.taskmanager.event.GoogleTokenChangedEvent;
 import edu.juanoff.taskmanager.repository.GoogleTokenRepository;
 import edu.juanoff.taskmanager.service.UserService;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
@@ -14,6 +15,7 @@ import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.encrypt.TextEncryptor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,6 +40,8 @@ public class GoogleTokenService {
     private final UserService userService;
     private final HttpSession session;
     private final GoogleIdTokenVerifier idTokenVerifier;
+    private final GoogleAccessTokenCache accessTokenCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("#{'${google.calendar.scope}'.split('\\s+')}")
     private List<String> requiredScopes;
@@ -86,16 +90,30 @@ public class GoogleTokenService {
     }
 
     public Credential getValidCredential(Long userId) throws IOException {
+        return createCredential(getValidAccessToken(userId), userId);
+    }
+
+    public String getValidAccessToken(Long userId) {
+        return accessTokenCache.get(userId, this::loadAccessToken);
+    }
+
+    private GoogleAccessTokenCache.CachedToken loadAccessToken(Long userId) {
         GoogleToken token = findTokenByUserId(userId);
         validateTokenScopes(token);
 
-        String accessToken = decryptToken(token.getAccessToken(), "access token", userId);
+        String accessToken = isTokenExpired(token)
+                ? refreshAccessToken(token, userId)
+                : decryptToken(token.getAccessToken(), "access token", userId);
 
-        if (isTokenExpired(token)) {
-            accessToken = refreshAccessToken(token, userId);
-        }
+        return GoogleAccessTokenCache.CachedToken.of(accessToken, token.getExpiresAt());
+    }
+
+    public String getCalendarSyncToken(Long userId) {
+        return findTokenByUserId(userId).getCalendarSyncToken();
+    }
 
-        return createCredential(accessToken, userId);
+    public void saveCalendarSyncToken(Long userId, String syncToken) {
+        tokenRepository.updateCalendarSyncToken(userId, syncToken);
     }
 
     public String getConnectedEmail(Long userId) throws GoogleCalendarException {
@@ -108,6 +126,7 @@ public class GoogleTokenService {
     public void disconnect(Long userId) throws GoogleCalendarException {
         GoogleToken token = findTokenByUserId(userId);
         tokenRepository.delete(token);
+        eventPublisher.publishEvent(new GoogleTokenChangedEvent(userId));
         log.info("Disconnected Google Calendar for user: {}", userId);
     }
 
@@ -195,8 +214,11 @@ public class GoogleTokenService {
         token.setExpiresAt(LocalDateTime.now().plusSeconds(response.getExpiresInSeconds()));
         token.setScopes(response.getScope());
         token.setEmail(textEncryptor.encrypt(email));
+        //! Аккаунт мог смениться: следующая синхронизация начнется с полной выгрузки
+        token.setCalendarSyncToken(null);
 
         tokenRepository.save(token);
+        eventPublisher.publishEvent(new GoogleTokenChangedEvent(userId));
         log.debug("Saved token for user: {}", userId);
     }
 
@@ -232,7 +254,7 @@ public class GoogleTokenService {
     }
 
     private boolean isTokenExpired(GoogleToken token) {
-        return token.getExpiresAt().isBefore(LocalDateTime.now());
+        return accessTokenCache.needsRefresh(token.getExpiresAt());
     }
 
     private String refreshAccessToken(GoogleToken token, Long userId) {
@@ -0,0 +1,128 @@
+package edu.juanoff.taskmanager.service.search;
+
+import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.filter.TaskSearchRequestDTO;
+import edu.juanoff.taskmanager.filter.TaskSpecificationBuilder;
+import edu.juanoff.taskmanager.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Component
+@Profile("test")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryTaskSearchEngine implements TaskSearchEngine {
+
+    private static final int TITLE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final TaskRepository taskRepository;
+    private final TaskSpecificationBuilder specBuilder;
+
+    //! Слово -> (id задачи -> вес совпадения)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTokens = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            postings.clear();
+            documentTokens.clear();
+        }
+        taskRepository.findAll().forEach(this::index);
+        log.info("In-memory task search index built for {} tasks", documentTokens.size());
+    }
+
+    //! Сначала выбираются задачи, видимые пользователю с учетом фильтров, и ранжируются только они
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findRankedTaskIds(Long userId, TaskSearchRequestDTO request, int offset, int limit) {
+        if (TaskSearchEngine.tokenize(request.query()).isEmpty()) {
+            return List.of();
+        }
+        Set<Long> visibleIds = taskRepository.findAll(specBuilder.build(userId, request)).stream()
+                .map(Task::getId)
+                .collect(Collectors.toSet());
+        return rankTaskIds(request.query(), visibleIds, offset, limit);
+    }
+
+    //! candidates == null - ранжировать по всему индексу
+    synchronized List<Long> rankTaskIds(String query, Set<Long> candidates, int offset, int limit) {
+        List<String> tokens = TaskSearchEngine.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Long, Integer> tokenScores = new HashMap<>();
+            postings.subMap(token, true, token + Character.MAX_VALUE, true).values()
+                    .forEach(docs -> docs.forEach((id, weight) -> tokenScores.merge(id, weight, Math::max)));
+
+            if (candidates != null) {
+                tokenScores.keySet().retainAll(candidates);
+            }
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .skip(offset)
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Override
+    public synchronized void index(Task task) {
+        remove(task.getId());
+        if (task.getParentTask() != null) {
+            return;
+        }
+
+        Map<String, Integer> weights = new HashMap<>();
+        TaskSearchEngine.tokenize(task.getTitle()).forEach(token -> weights.merge(token, TITLE_WEIGHT, Integer::sum));
+        TaskSearchEngine.tokenize(task.getDescription())
+                .forEach(token -> weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum));
+
+        weights.forEach((token, weight) -> postings.computeIfAbsent(token, t -> new HashMap<>()).put(task.getId(), weight));
+        documentTokens.put(task.getId(), weights.keySet());
+    }
+
+    @Override
+    public synchronized void remove(Long taskId) {
+        Set<String> tokens = documentTokens.remove(taskId);
+        if (tokens == null) {
+            return;
+        }
+
+        for (String token : tokens) {
+            Map<Long, Integer> docs = postings.get(token);
+            if (docs != null) {
+                docs.remove(taskId);
+                if (docs.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+}
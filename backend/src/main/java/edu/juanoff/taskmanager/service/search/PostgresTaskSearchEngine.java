@@ -0,0 +1,56 @@
+package edu.juanoff.taskmanager.service.search;
+
+import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.filter.DueDateWindow;
+import edu.juanoff.taskmanager.filter.TaskSearchRequestDTO;
+import edu.juanoff.taskmanager.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+public class PostgresTaskSearchEngine implements TaskSearchEngine {
+
+    private final TaskRepository taskRepository;
+
+    @Override
+    public List<Long> findRankedTaskIds(Long userId, TaskSearchRequestDTO request, int offset, int limit) {
+        List<String> tokens = TaskSearchEngine.tokenize(request.query());
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        String tsQuery = tokens.stream()
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+        DueDateWindow window = DueDateWindow.of(request.dueDateFilter(), LocalDate.now());
+        return taskRepository.findRankedIdsByFullText(
+                tsQuery,
+                userId,
+                request.status() != null ? request.status().name() : null,
+                request.priority() != null ? request.priority().name() : null,
+                request.categoryId(),
+                request.accessLevel() != null ? request.accessLevel().name() : null,
+                window.from(),
+                window.to(),
+                window.noDate(),
+                offset,
+                limit
+        );
+    }
+
+    //! search_vector - генерируемая колонка, PostgreSQL поддерживает ее сам
+    @Override
+    public void index(Task task) {
+    }
+
+    @Override
+    public void remove(Long taskId) {
+    }
+}
@@ -0,0 +1,29 @@
+package edu.juanoff.taskmanager.service.search;
+
+import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.filter.TaskSearchRequestDTO;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public interface TaskSearchEngine {
+
+    //! Страница id задач верхнего уровня, видимых пользователю и прошедших фильтры запроса,
+    //! по убыванию релевантности; каждое слово ищется по префиксу, совпасть должны все
+    List<Long> findRankedTaskIds(Long userId, TaskSearchRequestDTO request, int offset, int limit);
+
+    void index(Task task);
+
+    void remove(Long taskId);
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
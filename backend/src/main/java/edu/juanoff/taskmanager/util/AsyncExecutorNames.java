@@ -3,7 +3,6 @@ package edu.juanoff.taskmanager.util;
 public final class AsyncExecutorNames {
 
     public static final String NOTIFICATION = "notificationTaskExecutor";
-    public static final String ACHIEVEMENT = "achievementTaskExecutor";
 
     private AsyncExecutorNames() {
     }
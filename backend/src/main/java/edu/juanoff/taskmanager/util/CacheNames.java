@@ -2,8 +2,10 @@ package edu.juanoff.taskmanager.util;
 
 public final class CacheNames {
 
-    public static final String TASK_OWNERSHIP = "taskOwnership";
-    public static final String TASK_ACCESS = "taskAccess";
+    public static final String ACCESS_SNAPSHOT = "accessSnapshot";
+    public static final String NOTIFICATION_SETTINGS = "notificationSettings";
+    public static final String TASK_RECIPIENTS = "taskRecipients";
+    public static final String INCOMPLETE_ACHIEVEMENTS = "incompleteAchievements";
 
     private CacheNames() {
     }
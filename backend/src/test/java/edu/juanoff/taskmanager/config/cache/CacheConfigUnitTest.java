@@ -0,0 +1,44 @@
+package edu.juanoff.taskmanager.config.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import edu.juanoff.taskmanager.util.CacheNames;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheConfigUnitTest {
+
+    //! как в SpringApplication: websocket.broker.mode задается в нижнем регистре
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(CacheConfig.class);
+
+    @Test
+    void shouldKeepLongSnapshotTtlWithSimpleBroker() {
+        contextRunner
+                .withPropertyValues("websocket.broker.mode=simple")
+                .run(context -> assertEquals(Duration.ofHours(24), snapshotTtl(context.getBean(CacheManager.class))));
+    }
+
+    @Test
+    void shouldShortenSnapshotTtlWithRelayBroker() {
+        contextRunner
+                .withPropertyValues("websocket.broker.mode=relay",
+                        "cache.caffeine.access-snapshot.relay-expire-after-write=15s")
+                .run(context -> assertEquals(Duration.ofSeconds(15), snapshotTtl(context.getBean(CacheManager.class))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Duration snapshotTtl(CacheManager cacheManager) {
+        Cache<Object, Object> cache = (Cache<Object, Object>) cacheManager
+                .getCache(CacheNames.ACCESS_SNAPSHOT)
+                .getNativeCache();
+        return cache.policy().expireAfterWrite().orElseThrow().getExpiresAfter();
+    }
+}
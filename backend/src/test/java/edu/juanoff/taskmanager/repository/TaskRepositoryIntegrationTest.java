@@ -0,0 +1,144 @@
+package edu.juanoff.taskmanager.repository;
+
+import edu.juanoff.taskmanager.dto.task.TaskResponseDTO;
+import edu.juanoff.taskmanager.dto.task.TaskTreeRowDTO;
+import edu.juanoff.taskmanager.entity.AccessLevel;
+import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.entity.TaskAccess;
+import edu.juanoff.taskmanager.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TaskRepositoryIntegrationTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User guest;
+
+    @BeforeEach
+    void setUp() {
+        owner = persistUser("owner");
+        guest = persistUser("guest");
+    }
+
+    //! Task.validateNesting не дает создать третий уровень через JPA, но в таблице ограничения нет,
+    //! поэтому глубокие ветки вставляются напрямую
+    @Test
+    void shouldLoadAllLevelsOfTaskTree() {
+        Task root = persistTask("root", null, DUE);
+        Task child = persistTask("child", root, DUE);
+        Long grandchildId = insertTaskRow("grandchild", child.getId());
+        Long greatGrandchildId = insertTaskRow("great-grandchild", grandchildId);
+        persistTask("sibling tree", null, DUE);
+
+        List<TaskTreeRowDTO> rows = taskRepository.findTaskTreeRows(root.getId(), owner.getId());
+
+        assertEquals(List.of(root.getId(), child.getId(), grandchildId, greatGrandchildId),
+                rows.stream().map(TaskTreeRowDTO::id).toList());
+        assertEquals(child.getId(), rows.get(2).parentTaskId());
+        assertEquals(grandchildId, rows.get(3).parentTaskId());
+    }
+
+    @Test
+    void shouldLoadSubtreeWithSharedAccessLevel() {
+        Task root = persistTask("root", null, DUE);
+        Task child = persistTask("child", root, DUE);
+        Long grandchildId = insertTaskRow("grandchild", child.getId());
+        entityManager.persistAndFlush(TaskAccess.builder()
+                .task(child)
+                .user(guest)
+                .accessLevel(AccessLevel.EDIT)
+                .build());
+
+        List<TaskTreeRowDTO> rows = taskRepository.findTaskTreeRows(child.getId(), guest.getId());
+
+        assertEquals(List.of(child.getId(), grandchildId), rows.stream().map(TaskTreeRowDTO::id).toList());
+        assertEquals(AccessLevel.EDIT, rows.get(0).sharedAccessLevel());
+    }
+
+    @Test
+    void shouldReturnNoRowsForMissingTask() {
+        assertTrue(taskRepository.findTaskTreeRows(-1L, owner.getId()).isEmpty());
+    }
+
+    @Test
+    void shouldPageTopLevelTasksByDueDateThenWithoutDueDate() {
+        Task first = persistTask("first", null, DUE);
+        Task second = persistTask("second", null, DUE);
+        Task later = persistTask("later", null, DUE.plusDays(1));
+        Task undated = persistTask("undated", null, null);
+        persistTask("subtask", first, DUE.minusDays(1));
+        Task shared = persistTask("shared", null, DUE.plusDays(2), guest);
+        entityManager.persistAndFlush(TaskAccess.builder()
+                .task(shared)
+                .user(owner)
+                .accessLevel(AccessLevel.VIEW)
+                .build());
+
+        List<TaskResponseDTO> firstPage = taskRepository.findTaskPage(owner.getId(), PageRequest.ofSize(2));
+        List<TaskResponseDTO> secondPage = taskRepository.findTaskPageAfterDueDate(
+                owner.getId(), DUE, second.getId(), PageRequest.ofSize(2));
+        List<TaskResponseDTO> lastPage = taskRepository.findTaskPageAfterNoDueDate(
+                owner.getId(), undated.getId(), PageRequest.ofSize(2));
+
+        assertEquals(List.of(first.getId(), second.getId()), firstPage.stream().map(TaskResponseDTO::id).toList());
+        assertEquals(1, firstPage.get(0).subtasksCount());
+        assertEquals(AccessLevel.OWNER, firstPage.get(0).accessLevel());
+        assertEquals(List.of(later.getId(), shared.getId()), secondPage.stream().map(TaskResponseDTO::id).toList());
+        assertEquals(AccessLevel.VIEW, secondPage.get(1).accessLevel());
+        assertTrue(lastPage.isEmpty());
+    }
+
+    private Long insertTaskRow(String title, Long parentTaskId) {
+        jdbcTemplate.update("INSERT INTO tasks (title, user_id, parent_task_id, due_date) VALUES (?, ?, ?, ?)",
+                title, owner.getId(), parentTaskId, DUE);
+        return jdbcTemplate.queryForObject("SELECT id FROM tasks WHERE title = ?", Long.class, title);
+    }
+
+    private User persistUser(String username) {
+        return entityManager.persistAndFlush(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .passwordHash("hashedPassword")
+                .role(User.Role.USER)
+                .build());
+    }
+
+    private Task persistTask(String title, Task parent, LocalDateTime dueDate) {
+        return persistTask(title, parent, dueDate, owner);
+    }
+
+    private Task persistTask(String title, Task parent, LocalDateTime dueDate, User user) {
+        return entityManager.persistAndFlush(Task.builder()
+                .title(title)
+                .user(user)
+                .parentTask(parent)
+                .dueDate(dueDate)
+                .build());
+    }
+}
@@ -0,0 +1,82 @@
+package edu.juanoff.taskmanager.scheduler;
+
+import edu.juanoff.taskmanager.dto.notification.TaskReminderDTO;
+import edu.juanoff.taskmanager.event.TaskScheduleChangedEvent;
+import edu.juanoff.taskmanager.repository.TaskReminderRepository;
+import edu.juanoff.taskmanager.service.NotificationProcessingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineReminderEngineUnitTest {
+
+    @Mock
+    private TaskReminderRepository taskReminderRepository;
+
+    @Mock
+    private NotificationProcessingService notificationProcessingService;
+
+    private DeadlineReminderEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void shouldFireDueReminderThroughExecutor() {
+        engine = new DeadlineReminderEngine(taskReminderRepository, notificationProcessingService, Runnable::run, 60_000, 50);
+        when(taskReminderRepository.findPendingUntil(any()))
+                .thenReturn(List.of(new TaskReminderDTO(10L, 1L, 2L, LocalDateTime.now().minusSeconds(1))));
+
+        engine.reloadWindow();
+
+        verify(notificationProcessingService, timeout(2000)).processReminder(10L);
+    }
+
+    @Test
+    void shouldRetryReminderRejectedByExecutor() {
+        AtomicInteger attempts = new AtomicInteger();
+        Executor rejectingOnce = runnable -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new RejectedExecutionException("queue is full");
+            }
+            runnable.run();
+        };
+        engine = new DeadlineReminderEngine(taskReminderRepository, notificationProcessingService, rejectingOnce, 60_000, 50);
+        when(taskReminderRepository.findPendingUntil(any()))
+                .thenReturn(List.of(new TaskReminderDTO(10L, 1L, 2L, LocalDateTime.now().minusSeconds(1))));
+
+        engine.reloadWindow();
+
+        verify(notificationProcessingService, timeout(2000)).processReminder(10L);
+        verify(notificationProcessingService, after(200).times(1)).processReminder(10L);
+    }
+
+    @Test
+    void shouldNotFireReminderOfRescheduledTask() {
+        engine = new DeadlineReminderEngine(taskReminderRepository, notificationProcessingService, Runnable::run, 60_000, 50);
+        when(taskReminderRepository.findPendingUntil(any()))
+                .thenReturn(List.of(new TaskReminderDTO(10L, 1L, 2L, LocalDateTime.now().plusSeconds(30))));
+        when(taskReminderRepository.findPendingUntilByTaskIdIn(any(), any())).thenReturn(List.of());
+        engine.reloadWindow();
+
+        engine.handleTaskScheduleChanged(new TaskScheduleChangedEvent(List.of(1L)));
+
+        verify(notificationProcessingService, after(200).never()).processReminder(any());
+    }
+}
@@ -0,0 +1,120 @@
+package edu.juanoff.taskmanager.scheduler;
+
+import edu.juanoff.taskmanager.dto.notification.NotificationPurgeCandidateDTO;
+import edu.juanoff.taskmanager.repository.NotificationPartitionRepository;
+import edu.juanoff.taskmanager.repository.NotificationRepository;
+import edu.juanoff.taskmanager.service.NotificationCounterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRetentionEngineUnitTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationPartitionRepository notificationPartitionRepository;
+
+    @Mock
+    private NotificationCounterService notificationCounterService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("notification.retention.max-age.default", "30d");
+
+    @BeforeEach
+    void setUp() {
+        //! как в SpringApplication: иначе строки вида "30d" не конвертируются в Duration
+        environment.setConversionService(new ApplicationConversionService());
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private NotificationRetentionEngine engine(int batchSize, boolean partitioned) {
+        return new NotificationRetentionEngine(notificationRepository, notificationPartitionRepository,
+                notificationCounterService, transactionTemplate, environment,
+                Duration.ofDays(2), batchSize, 0, partitioned);
+    }
+
+    @Test
+    void shouldDeleteInChunksUntilShortChunk() {
+        when(notificationRepository.findClosedPurgeCandidates(any(), any(Pageable.class))).thenReturn(
+                List.of(new NotificationPurgeCandidateDTO(1L, 10L, true, true),
+                        new NotificationPurgeCandidateDTO(2L, 20L, false, false)),
+                List.of(new NotificationPurgeCandidateDTO(3L, 30L, true, false)));
+
+        engine(2, false).purge();
+
+        verify(notificationRepository, times(2)).findClosedPurgeCandidates(any(), any(Pageable.class));
+        verify(notificationRepository).deleteAllByIdIn(List.of(1L, 2L));
+        verify(notificationRepository).deleteAllByIdIn(List.of(3L));
+    }
+
+    @Test
+    void shouldSubtractOnlyOpenNotificationsFromCounters() {
+        when(notificationRepository.findClosedPurgeCandidates(any(), any(Pageable.class))).thenReturn(
+                List.of(new NotificationPurgeCandidateDTO(1L, 10L, true, true),
+                        new NotificationPurgeCandidateDTO(2L, 20L, false, false),
+                        new NotificationPurgeCandidateDTO(3L, 20L, true, false)));
+
+        engine(10, false).purge();
+
+        verify(notificationCounterService).applyDelta(20L, -1, -2);
+        verify(notificationCounterService, never()).applyDelta(eq(10L), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldNotDeleteWhenNothingExpired() {
+        engine(10, false).purge();
+
+        verify(notificationRepository, never()).deleteAllByIdIn(anyList());
+        verifyNoInteractions(notificationCounterService, notificationPartitionRepository);
+    }
+
+    @Test
+    void shouldDropOnlyPartitionsOlderThanLongestRetention() {
+        YearMonth current = YearMonth.now();
+        YearMonth expired = current.minusMonths(3);
+        when(notificationPartitionRepository.findMonthlyPartitions()).thenReturn(List.of(expired, current));
+        when(notificationPartitionRepository.findUserIdsWithOpenNotifications(expired)).thenReturn(List.of(7L, 8L));
+
+        engine(10, true).purge();
+
+        verify(notificationPartitionRepository).createMonthlyPartition(current);
+        verify(notificationPartitionRepository).createMonthlyPartition(current.plusMonths(1));
+        verify(notificationPartitionRepository).dropMonthlyPartition(expired);
+        verify(notificationPartitionRepository, never()).dropMonthlyPartition(current);
+        verify(notificationCounterService).recount(7L);
+        verify(notificationCounterService).recount(8L);
+    }
+
+    @Test
+    void shouldRejectNonPositiveBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> engine(0, false));
+    }
+}
@@ -0,0 +1,77 @@
+package edu.juanoff.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.juanoff.taskmanager.event.TaskDeletedEvent;
+import edu.juanoff.taskmanager.event.TaskOwnershipChangedEvent;
+import edu.juanoff.taskmanager.repository.TaskAccessRepository;
+import edu.juanoff.taskmanager.repository.TaskRepository;
+import edu.juanoff.taskmanager.util.CacheNames;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccessSnapshotServiceUnitTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskAccessRepository taskAccessRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    private AccessSnapshotService accessSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        when(cacheManager.getCache(CacheNames.ACCESS_SNAPSHOT))
+                .thenReturn(new CaffeineCache(CacheNames.ACCESS_SNAPSHOT, Caffeine.newBuilder().build()));
+        accessSnapshotService = new AccessSnapshotService(taskRepository, taskAccessRepository, cacheManager);
+
+        when(taskRepository.findIdsByUserId(1L)).thenReturn(List.of(10L, 11L));
+        when(taskRepository.findIdsByUserId(2L)).thenReturn(List.of(10L));
+        when(taskAccessRepository.findAccessLevelsByUserId(anyLong())).thenReturn(List.of());
+        accessSnapshotService.getSnapshot(1L);
+        accessSnapshotService.getSnapshot(2L);
+    }
+
+    @Test
+    void shouldRemoveDeletedTaskOnlyFromAffectedSnapshots() {
+        accessSnapshotService.handleTaskDeleted(new TaskDeletedEvent(List.of(10L), Set.of(1L)));
+
+        assertFalse(accessSnapshotService.isOwner(10L, 1L));
+        assertTrue(accessSnapshotService.isOwner(11L, 1L));
+        assertTrue(accessSnapshotService.isOwner(10L, 2L));
+        verify(taskRepository, times(1)).findIdsByUserId(1L);
+    }
+
+    @Test
+    void shouldApplyOwnershipToLoadedSnapshot() {
+        accessSnapshotService.handleOwnershipChanged(new TaskOwnershipChangedEvent(12L, 1L));
+
+        assertTrue(accessSnapshotService.isOwner(12L, 1L));
+        verify(taskRepository, times(1)).findIdsByUserId(1L);
+    }
+
+    @Test
+    void shouldReloadSnapshotAfterEviction() {
+        when(taskRepository.findIdsByUserId(1L)).thenReturn(List.of(10L, 11L, 12L));
+
+        accessSnapshotService.evict(1L);
+
+        assertTrue(accessSnapshotService.isOwner(12L, 1L));
+        verify(taskRepository, times(2)).findIdsByUserId(1L);
+    }
+}
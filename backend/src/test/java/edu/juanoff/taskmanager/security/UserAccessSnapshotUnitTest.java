@@ -0,0 +1,54 @@
+package edu.juanoff.taskmanager.security;
+
+import edu.juanoff.taskmanager.dto.access.TaskAccessLevelDTO;
+import edu.juanoff.taskmanager.entity.AccessLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserAccessSnapshotUnitTest {
+
+    private final UserAccessSnapshot snapshot = UserAccessSnapshot.of(
+            List.of(5L, 1L, 3L),
+            List.of(new TaskAccessLevelDTO(8L, AccessLevel.EDIT), new TaskAccessLevelDTO(2L, AccessLevel.VIEW))
+    );
+
+    @Test
+    void shouldResolveOwnedAndSharedAccessLevels() {
+        assertEquals(AccessLevel.OWNER, snapshot.getAccessLevel(3L));
+        assertEquals(AccessLevel.VIEW, snapshot.getAccessLevel(2L));
+        assertEquals(AccessLevel.EDIT, snapshot.getAccessLevel(8L));
+        assertNull(snapshot.getAccessLevel(4L));
+    }
+
+    @Test
+    void shouldApplyChangesWithoutMutatingOriginal() {
+        UserAccessSnapshot updated = snapshot
+                .withOwned(4L)
+                .withShared(6L, AccessLevel.VIEW)
+                .withShared(2L, AccessLevel.EDIT)
+                .withoutShared(8L);
+
+        assertTrue(updated.isOwner(4L));
+        assertEquals(AccessLevel.VIEW, updated.getSharedLevel(6L));
+        assertEquals(AccessLevel.EDIT, updated.getSharedLevel(2L));
+        assertNull(updated.getSharedLevel(8L));
+
+        assertFalse(snapshot.isOwner(4L));
+        assertEquals(AccessLevel.VIEW, snapshot.getSharedLevel(2L));
+        assertEquals(AccessLevel.EDIT, snapshot.getSharedLevel(8L));
+    }
+
+    @Test
+    void shouldRemoveDeletedTasksAndKeepInstanceWhenNothingChanges() {
+        UserAccessSnapshot updated = snapshot.withoutTasks(Set.of(1L, 2L));
+
+        assertFalse(updated.isOwner(1L));
+        assertTrue(updated.isOwner(5L));
+        assertNull(updated.getSharedLevel(2L));
+        assertSame(updated, updated.withoutTasks(Set.of(100L)));
+    }
+}
@@ -0,0 +1,182 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.dto.task.TaskResponseDTO;
+import edu.juanoff.taskmanager.entity.AccessLevel;
+import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.event.AchievementsUpdatedEvent;
+import edu.juanoff.taskmanager.handler.AchievementAction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AchievementLaneDispatcherUnitTest {
+
+    @Mock
+    private UserAchievementService userAchievementService;
+
+    private AchievementLaneDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void shouldNotBlockCallerWhenLaneIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(userAchievementService).processAchievementUpdates(eq(1L), anyList());
+        dispatcher = new AchievementLaneDispatcher(userAchievementService, new SimpleMeterRegistry(), 1, 1);
+
+        dispatcher.submit(event(1L));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        assertTimeoutPreemptively(Duration.ofMillis(500), () -> {
+            dispatcher.submit(event(2L));
+            dispatcher.submit(event(3L));
+            dispatcher.submit(event(4L));
+        });
+        release.countDown();
+
+        verify(userAchievementService, timeout(2000)).processAchievementUpdates(eq(2L), anyList());
+        verify(userAchievementService, timeout(2000)).processAchievementUpdates(eq(3L), anyList());
+        verify(userAchievementService, timeout(2000)).processAchievementUpdates(eq(4L), anyList());
+    }
+
+    @Test
+    void shouldMergeEventsOfQueuedUser() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(userAchievementService).processAchievementUpdates(eq(1L), anyList());
+        dispatcher = new AchievementLaneDispatcher(userAchievementService, new SimpleMeterRegistry(), 1, 10);
+
+        dispatcher.submit(event(1L));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        dispatcher.submit(event(2L));
+        dispatcher.submit(event(2L));
+        release.countDown();
+
+        verify(userAchievementService, timeout(2000)).processAchievementUpdates(eq(2L), argThat(events -> events.size() == 2));
+        verify(userAchievementService, after(200).times(1)).processAchievementUpdates(eq(2L), anyList());
+    }
+
+    @Test
+    void shouldRunTaskAfterPendingEventsOfUser() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(userAchievementService).processAchievementUpdates(eq(1L), anyList());
+        dispatcher = new AchievementLaneDispatcher(userAchievementService, new SimpleMeterRegistry(), 1, 10);
+
+        dispatcher.submit(event(1L));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        dispatcher.submit(event(2L));
+        CompletableFuture<Integer> result = dispatcher.execute(2L, () -> {
+            verify(userAchievementService).processAchievementUpdates(eq(2L), anyList());
+            return 42;
+        });
+        release.countDown();
+
+        assertEquals(42, result.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCollapseStatusTransitionsOfSameTask() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(userAchievementService).processAchievementUpdates(eq(1L), anyList());
+        dispatcher = new AchievementLaneDispatcher(userAchievementService, new SimpleMeterRegistry(), 1, 10);
+        Task created = Task.builder().id(5L).status(Task.StatusType.TO_DO).build();
+        Task done = Task.builder().id(5L).status(Task.StatusType.DONE).build();
+        Task reopened = Task.builder().id(5L).status(Task.StatusType.IN_PROGRESS).build();
+        TaskResponseDTO todo = snapshot(Task.StatusType.TO_DO);
+        TaskResponseDTO doneBefore = snapshot(Task.StatusType.DONE);
+
+        dispatcher.submit(event(1L));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        dispatcher.submit(new AchievementsUpdatedEvent(2L, null, created, AchievementAction.CREATE));
+        dispatcher.submit(new AchievementsUpdatedEvent(2L, todo, done, AchievementAction.COMPLETE));
+        dispatcher.submit(new AchievementsUpdatedEvent(2L, doneBefore, reopened, AchievementAction.COMPLETE));
+        release.countDown();
+
+        ArgumentCaptor<List<AchievementsUpdatedEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(userAchievementService, timeout(2000)).processAchievementUpdates(eq(2L), events.capture());
+        assertEquals(List.of(
+                new AchievementsUpdatedEvent(2L, null, created, AchievementAction.CREATE),
+                new AchievementsUpdatedEvent(2L, todo, reopened, AchievementAction.COMPLETE)
+        ), events.getValue());
+    }
+
+    @Test
+    void shouldServeOverflowedUsersBeforeLaterOnes() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> processed = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            Long userId = invocation.getArgument(0);
+            if (userId == 1L) {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            } else if (userId == 2L) {
+                //! Место в полосе освободилось, но новый пользователь должен встать за overflow
+                dispatcher.submit(event(5L));
+            }
+            processed.add(userId);
+            return null;
+        }).when(userAchievementService).processAchievementUpdates(anyLong(), anyList());
+        dispatcher = new AchievementLaneDispatcher(userAchievementService, new SimpleMeterRegistry(), 1, 1);
+
+        dispatcher.submit(event(1L));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        dispatcher.submit(event(2L));
+        dispatcher.submit(event(3L));
+        dispatcher.submit(event(4L));
+        release.countDown();
+
+        verify(userAchievementService, timeout(2000)).processAchievementUpdates(eq(5L), anyList());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), processed);
+    }
+
+    private TaskResponseDTO snapshot(Task.StatusType status) {
+        return new TaskResponseDTO(5L, "Task", null, status, Task.Priority.LOW, null, null, null,
+                2L, null, null, 0, AccessLevel.OWNER, "user");
+    }
+
+    private AchievementsUpdatedEvent event(Long userId) {
+        return new AchievementsUpdatedEvent(userId, null, null, AchievementAction.CREATE);
+    }
+}
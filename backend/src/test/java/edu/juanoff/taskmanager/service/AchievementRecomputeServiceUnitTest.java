@@ -0,0 +1,120 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.dto.achievement.AchievementBackfillProgressDTO.Status;
+import edu.juanoff.taskmanager.dto.achievement.AchievementRecomputeProgressDTO;
+import edu.juanoff.taskmanager.dto.achievement.UserAchievementProgressDTO;
+import edu.juanoff.taskmanager.dto.task.TaskAchievementFactDTO;
+import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.handler.AchievementName;
+import edu.juanoff.taskmanager.handler.PlannerAchievementHandler;
+import edu.juanoff.taskmanager.repository.TaskRepository;
+import edu.juanoff.taskmanager.repository.UserAchievementBatchRepository;
+import edu.juanoff.taskmanager.repository.UserAchievementBatchRepository.ProgressCorrection;
+import edu.juanoff.taskmanager.repository.UserAchievementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AchievementRecomputeServiceUnitTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserAchievementRepository userAchievementRepository;
+
+    @Mock
+    private UserAchievementBatchRepository userAchievementBatchRepository;
+
+    @Mock
+    private UserAchievementService userAchievementService;
+
+    @Mock
+    private AchievementLaneDispatcher laneDispatcher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AchievementRecomputeService recomputeService;
+
+    @BeforeEach
+    void setUp() {
+        recomputeService = new AchievementRecomputeService(taskRepository, userAchievementRepository,
+                userAchievementBatchRepository, userAchievementService, laneDispatcher,
+                List.of(new PlannerAchievementHandler(new AchievementProgressService())), transactionManager, 100, 2);
+
+        when(userAchievementBatchRepository.findUserChunkUpperBound(0L, 100)).thenReturn(2L);
+        when(userAchievementBatchRepository.findUserChunkUpperBound(2L, 100)).thenReturn(null);
+        when(taskRepository.streamAchievementFactsForUserRange(0L, 2L)).thenReturn(Stream.of(
+                fact(1L, LocalDateTime.now()), fact(1L, LocalDateTime.now()), fact(2L, null)));
+        when(userAchievementRepository.findProgressForUserRange(0L, 2L)).thenReturn(List.of(
+                new UserAchievementProgressDTO(10L, 1L, AchievementName.PLANNER.getDisplayName(), 5, 0, false),
+                new UserAchievementProgressDTO(20L, 2L, AchievementName.PLANNER.getDisplayName(), 5, 0, false)));
+        when(laneDispatcher.execute(anyLong(), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(1).get()));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        recomputeService.shutdown();
+    }
+
+    @Test
+    void shouldWriteCorrectionsInUserLaneWithExpectedValues() {
+        when(userAchievementBatchRepository.correctProgress(anyList())).thenReturn(1);
+
+        AchievementRecomputeProgressDTO progress = runToCompletion();
+
+        verify(laneDispatcher).execute(eq(1L), any());
+        verify(laneDispatcher, never()).execute(eq(2L), any());
+        verify(userAchievementService).evictIncompleteAchievements(List.of(1L));
+        verify(userAchievementBatchRepository).correctProgress(List.of(new ProgressCorrection(10L, 0, false, 2, false)));
+        assertEquals(Status.COMPLETED, progress.status());
+        assertEquals(2, progress.processedUsers());
+        assertEquals(1, progress.updatedRows());
+    }
+
+    @Test
+    void shouldNotCountRowsChangedByEventsSinceRead() {
+        when(userAchievementBatchRepository.correctProgress(anyList())).thenReturn(0);
+
+        AchievementRecomputeProgressDTO progress = runToCompletion();
+
+        assertEquals(Status.COMPLETED, progress.status());
+        assertEquals(0, progress.updatedRows());
+    }
+
+    private AchievementRecomputeProgressDTO runToCompletion() {
+        recomputeService.startRecompute();
+        return assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            AchievementRecomputeProgressDTO progress = recomputeService.getProgress();
+            while (progress.status() == Status.RUNNING) {
+                Thread.sleep(10);
+                progress = recomputeService.getProgress();
+            }
+            return progress;
+        });
+    }
+
+    private TaskAchievementFactDTO fact(Long userId, LocalDateTime dueDate) {
+        return new TaskAchievementFactDTO(userId, Task.StatusType.TO_DO, Task.Priority.MEDIUM, false, dueDate,
+                LocalDateTime.now(), null);
+    }
+}
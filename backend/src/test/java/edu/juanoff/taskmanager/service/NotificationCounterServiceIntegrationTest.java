@@ -0,0 +1,88 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.dto.notification.NotificationCountersDTO;
+import edu.juanoff.taskmanager.entity.Notification;
+import edu.juanoff.taskmanager.entity.NotificationCounter;
+import edu.juanoff.taskmanager.entity.User;
+import edu.juanoff.taskmanager.repository.NotificationCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//! Нативные запросы счетчиков должны выполняться и на H2 из профиля test
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(NotificationCounterService.class)
+class NotificationCounterServiceIntegrationTest {
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private NotificationCounterRepository notificationCounterRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persistAndFlush(User.builder()
+                .username("counter")
+                .email("counter@example.com")
+                .passwordHash("hashedPassword")
+                .role(User.Role.USER)
+                .build());
+        persistNotification(false, false);
+        persistNotification(true, false);
+        persistNotification(true, true);
+    }
+
+    @Test
+    void shouldCreateCountedRowOnlyOnce() {
+        assertEquals(1, notificationCounterRepository.insertCountedIfAbsent(user.getId()));
+        assertEquals(0, notificationCounterRepository.insertCountedIfAbsent(user.getId()));
+
+        assertEquals(new NotificationCountersDTO(1, 2), counters());
+    }
+
+    @Test
+    void shouldRecountMissingRow() {
+        assertEquals(new NotificationCountersDTO(1, 2), notificationCounterService.getCounters(user.getId()));
+
+        assertEquals(new NotificationCountersDTO(1, 2), counters());
+    }
+
+    @Test
+    void shouldOverwriteDriftedRowOnRecount() {
+        notificationCounterRepository.insertCountedIfAbsent(user.getId());
+        notificationCounterService.applyDelta(user.getId(), 5, 5);
+
+        notificationCounterService.recount(user.getId());
+
+        assertEquals(new NotificationCountersDTO(1, 2), counters());
+    }
+
+    private NotificationCountersDTO counters() {
+        entityManager.clear();
+        return NotificationCountersDTO.fromEntity(entityManager.find(NotificationCounter.class, user.getId()));
+    }
+
+    private void persistNotification(boolean read, boolean closed) {
+        entityManager.persistAndFlush(Notification.builder()
+                .user(user)
+                .title("Напоминание о задаче")
+                .isRead(read)
+                .isClosed(closed)
+                .build());
+    }
+}
@@ -0,0 +1,105 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.dto.notification.NotificationCountersDTO;
+import edu.juanoff.taskmanager.repository.NotificationCounterRepository;
+import edu.juanoff.taskmanager.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationCounterServiceUnitTest {
+
+    @Mock
+    private NotificationCounterRepository notificationCounterRepository;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @InjectMocks
+    private NotificationCounterService notificationCounterService;
+
+    @Test
+    void shouldApplyDeltaToExistingRow() {
+        when(notificationCounterRepository.applyDelta(1L, 2, 2)).thenReturn(1);
+
+        notificationCounterService.applyDelta(1L, 2, 2);
+
+        verify(notificationCounterRepository, never()).insertCountedIfAbsent(any());
+    }
+
+    @Test
+    void shouldCreateMissingRowFromNotificationsWithoutReapplyingDelta() {
+        when(notificationCounterRepository.applyDelta(1L, -1, -1)).thenReturn(0);
+        when(notificationCounterRepository.insertCountedIfAbsent(1L)).thenReturn(1);
+
+        notificationCounterService.applyDelta(1L, -1, -1);
+
+        verify(notificationCounterRepository, times(1)).applyDelta(1L, -1, -1);
+    }
+
+    @Test
+    void shouldApplyDeltaToRowInsertedConcurrently() {
+        when(notificationCounterRepository.applyDelta(1L, 1, 1)).thenReturn(0, 1);
+        when(notificationCounterRepository.insertCountedIfAbsent(1L)).thenReturn(0);
+
+        notificationCounterService.applyDelta(1L, 1, 1);
+
+        verify(notificationCounterRepository, times(2)).applyDelta(1L, 1, 1);
+    }
+
+    @Test
+    void shouldSkipZeroDelta() {
+        notificationCounterService.applyDelta(1L, 0, 0);
+
+        verifyNoInteractions(notificationCounterRepository);
+    }
+
+    @Test
+    void shouldOverwriteRecountedValues() {
+        when(notificationRepository.countByUserIdAndIsReadFalseAndIsClosedFalse(1L)).thenReturn(3L);
+        when(notificationRepository.countByUserIdAndIsClosedFalse(1L)).thenReturn(5L);
+        when(notificationCounterRepository.overwrite(1L, 3, 5)).thenReturn(1);
+
+        NotificationCountersDTO counters = notificationCounterService.recount(1L);
+
+        verify(notificationCounterRepository).overwrite(1L, 3, 5);
+        verify(notificationCounterRepository, never()).insertCountedIfAbsent(any());
+        assertEquals(new NotificationCountersDTO(3, 5), counters);
+    }
+
+    @Test
+    void shouldRecountWhenRowIsMissing() {
+        when(notificationCounterRepository.findById(1L)).thenReturn(Optional.empty());
+        when(notificationRepository.countByUserIdAndIsReadFalseAndIsClosedFalse(1L)).thenReturn(0L);
+        when(notificationRepository.countByUserIdAndIsClosedFalse(1L)).thenReturn(2L);
+
+        when(notificationCounterRepository.overwrite(1L, 0, 2)).thenReturn(0);
+        when(notificationCounterRepository.insertCountedIfAbsent(1L)).thenReturn(1);
+
+        notificationCounterService.getCounters(1L);
+
+        verify(notificationCounterRepository, times(1)).overwrite(1L, 0, 2);
+        verify(notificationCounterRepository).insertCountedIfAbsent(1L);
+    }
+
+    @Test
+    void shouldOverwriteRowInsertedConcurrentlyDuringRecount() {
+        when(notificationRepository.countByUserIdAndIsReadFalseAndIsClosedFalse(1L)).thenReturn(1L);
+        when(notificationRepository.countByUserIdAndIsClosedFalse(1L)).thenReturn(1L);
+        when(notificationCounterRepository.overwrite(1L, 1, 1)).thenReturn(0, 1);
+        when(notificationCounterRepository.insertCountedIfAbsent(1L)).thenReturn(0);
+
+        notificationCounterService.recount(1L);
+
+        verify(notificationCounterRepository, times(2)).overwrite(1L, 1, 1);
+    }
+}
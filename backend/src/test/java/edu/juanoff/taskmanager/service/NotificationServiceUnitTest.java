@@ -0,0 +1,84 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.dto.notification.NotificationCountersDTO;
+import edu.juanoff.taskmanager.entity.Notification;
+import edu.juanoff.taskmanager.event.NotificationCountersChangedEvent;
+import edu.juanoff.taskmanager.repository.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceUnitTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationCounterService notificationCounterService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    private final NotificationCountersDTO counters = new NotificationCountersDTO(0, 0);
+
+    @Test
+    void shouldDeriveCountersForCloseAllWithoutRecount() {
+        when(notificationRepository.closeAllUnreadByUserId(1L)).thenReturn(3);
+        when(notificationRepository.closeAllByUserId(1L)).thenReturn(2);
+        when(notificationCounterService.getCounters(1L)).thenReturn(counters);
+
+        assertEquals(counters, notificationService.closeAll(1L, "alice"));
+
+        verify(notificationCounterService).applyDelta(1L, -3, -5);
+        verify(notificationCounterService, never()).recount(anyLong());
+        verify(eventPublisher).publishEvent(new NotificationCountersChangedEvent("alice", counters));
+    }
+
+    @Test
+    void shouldOnlyDecreaseUnreadWhenMarkingAllRead() {
+        when(notificationRepository.markAllReadOpenByUserId(1L)).thenReturn(4);
+        when(notificationCounterService.getCounters(1L)).thenReturn(counters);
+
+        notificationService.markAllAsRead(1L, "alice");
+
+        verify(notificationRepository).markAllReadByUserId(1L);
+        verify(notificationCounterService).applyDelta(1L, -4, 0);
+        verify(notificationCounterService, never()).recount(anyLong());
+    }
+
+    @Test
+    void shouldDeriveDeltaForTypeAndTaskScopedClose() {
+        when(notificationRepository.closeAllUnreadByUserIdAndType(1L, Notification.Type.TASK_DEADLINE)).thenReturn(1);
+        when(notificationRepository.closeAllByUserIdAndType(1L, Notification.Type.TASK_DEADLINE)).thenReturn(1);
+        when(notificationRepository.closeAllByUserIdAndTaskId(1L, 7L)).thenReturn(2);
+        when(notificationCounterService.getCounters(1L)).thenReturn(counters);
+
+        notificationService.closeAllByType(1L, "alice", Notification.Type.TASK_DEADLINE);
+        notificationService.closeAllByTask(1L, "alice", 7L);
+
+        verify(notificationCounterService).applyDelta(1L, -1, -2);
+        verify(notificationCounterService).applyDelta(1L, 0, -2);
+        verify(notificationCounterService, never()).recount(anyLong());
+    }
+
+    @Test
+    void shouldNotPublishWhenNothingChanged() {
+        when(notificationCounterService.getCounters(1L)).thenReturn(counters);
+
+        notificationService.closeAll(1L, "alice");
+
+        verify(notificationCounterService, never()).applyDelta(anyLong(), anyInt(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
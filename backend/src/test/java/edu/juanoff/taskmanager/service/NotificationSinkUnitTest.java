@@ -0,0 +1,157 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.entity.Notification;
+import edu.juanoff.taskmanager.entity.User;
+import edu.juanoff.taskmanager.repository.NotificationRepository;
+import edu.juanoff.taskmanager.repository.TaskReminderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationSinkUnitTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationCounterService notificationCounterService;
+
+    @Mock
+    private TaskReminderRepository taskReminderRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationSink notificationSink;
+
+    @BeforeEach
+    void setUp() {
+        notificationSink = new NotificationSink(notificationRepository, notificationCounterService,
+                taskReminderRepository, messagingTemplate, transactionManager, Runnable::run, 10, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldWriteBatchAndSendAfterCommit() {
+        notificationSink.submit(notification(1L, "first"));
+        notificationSink.submit(notification(2L, "second"));
+
+        notificationSink.flush();
+
+        verify(notificationRepository, times(1)).saveAll(argThat(list -> ((List<?>) list).size() == 2));
+        verify(notificationCounterService).applyDelta(1L, 1, 1);
+        verify(notificationCounterService).applyDelta(2L, 1, 1);
+        verify(messagingTemplate, times(2)).convertAndSendToUser(anyString(), eq("/topic/notifications"), any());
+    }
+
+    @Test
+    void shouldRetryFailedBatchRowByRowAndKeepValidRows() {
+        Notification broken = notification(2L, "broken");
+        when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (invocation.<List<Notification>>getArgument(0).contains(broken)) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return invocation.getArgument(0);
+        });
+
+        notificationSink.submit(notification(1L, "first"));
+        notificationSink.submit(broken);
+        notificationSink.submit(notification(3L, "third"));
+        notificationSink.flush();
+
+        verify(notificationRepository, times(4)).saveAll(anyList());
+        verify(messagingTemplate).convertAndSendToUser(eq("first"), eq("/topic/notifications"), any());
+        verify(messagingTemplate).convertAndSendToUser(eq("third"), eq("/topic/notifications"), any());
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("broken"), anyString(), any());
+    }
+
+    @Test
+    void shouldEnqueueOnlyAfterCallerCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        notificationSink.submit(notification(1L, "first"));
+
+        notificationSink.flush();
+        verifyNoInteractions(notificationRepository);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        notificationSink.flush();
+
+        verify(notificationRepository).saveAll(anyList());
+    }
+
+    @Test
+    void shouldDropNotificationOfRolledBackTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        notificationSink.submit(notification(1L, "first"));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        notificationSink.flush();
+
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void shouldMarkReminderSentInTransactionOfNotification() {
+        when(taskReminderRepository.markSentById(5L)).thenReturn(1);
+        notificationSink.submit(notification(1L, "first"), 5L);
+        verifyNoInteractions(taskReminderRepository);
+
+        notificationSink.flush();
+
+        InOrder inOrder = inOrder(transactionManager, taskReminderRepository, notificationRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(taskReminderRepository).markSentById(5L);
+        inOrder.verify(notificationRepository).saveAll(argThat(list -> ((List<?>) list).size() == 1));
+        inOrder.verify(transactionManager).commit(any());
+        verify(messagingTemplate).convertAndSendToUser(eq("first"), eq("/topic/notifications"), any());
+    }
+
+    @Test
+    void shouldDropReminderAlreadySentElsewhere() {
+        when(taskReminderRepository.markSentById(5L)).thenReturn(0);
+        notificationSink.submit(notification(1L, "first"), 5L);
+        notificationSink.submit(notification(2L, "second"));
+
+        notificationSink.flush();
+
+        verify(notificationRepository).saveAll(argThat(list -> ((List<?>) list).size() == 1));
+        verify(notificationCounterService, never()).applyDelta(eq(1L), anyInt(), anyInt());
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("first"), anyString(), any());
+        verify(messagingTemplate).convertAndSendToUser(eq("second"), eq("/topic/notifications"), any());
+    }
+
+    private Notification notification(Long userId, String username) {
+        return Notification.builder()
+                .user(User.builder().id(userId).username(username).build())
+                .type(Notification.Type.TASK_DEADLINE)
+                .title(username)
+                .build();
+    }
+}
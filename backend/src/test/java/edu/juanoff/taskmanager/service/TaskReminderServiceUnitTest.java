@@ -0,0 +1,83 @@
+package edu.juanoff.taskmanager.service;
+
+import edu.juanoff.taskmanager.event.TaskScheduleChangedEvent;
+import edu.juanoff.taskmanager.repository.TaskAccessRepository;
+import edu.juanoff.taskmanager.repository.TaskReminderRepository;
+import edu.juanoff.taskmanager.repository.TaskRepository;
+import edu.juanoff.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskReminderServiceUnitTest {
+
+    @Mock
+    private TaskReminderRepository taskReminderRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskAccessRepository taskAccessRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private TaskReminderService taskReminderService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBackfillInChunksWithIdCursor() {
+        List<Long> firstChunk = LongStream.rangeClosed(1, 500).boxed().toList();
+        when(taskRepository.findReminderCandidateIdsWithoutReminders(any(), eq(0L), any(Pageable.class)))
+                .thenReturn(firstChunk);
+        when(taskRepository.findReminderCandidateIdsWithoutReminders(any(), eq(500L), any(Pageable.class)))
+                .thenReturn(List.of(501L, 502L));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        taskReminderService.backfillReminders();
+
+        ArgumentCaptor<TaskScheduleChangedEvent> events = ArgumentCaptor.forClass(TaskScheduleChangedEvent.class);
+        verify(transactionTemplate, times(2)).executeWithoutResult(any(Consumer.class));
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(firstChunk, events.getAllValues().get(0).taskIds());
+        assertEquals(List.of(501L, 502L), events.getAllValues().get(1).taskIds());
+        verify(taskRepository, times(2)).findReminderCandidateIdsWithoutReminders(any(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void shouldSkipBackfillWhenNothingIsMissing() {
+        when(taskRepository.findReminderCandidateIdsWithoutReminders(any(), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        taskReminderService.backfillReminders();
+
+        verifyNoInteractions(transactionTemplate, eventPublisher);
+    }
+}
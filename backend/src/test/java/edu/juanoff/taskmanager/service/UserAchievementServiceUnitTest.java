@@ -0,0 +1,135 @@
+package edu.juanoff.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.juanoff.taskmanager.entity.Achievement;
+import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.entity.UserAchievement;
+import edu.juanoff.taskmanager.event.AchievementsUpdatedEvent;
+import edu.juanoff.taskmanager.handler.AchievementAction;
+import edu.juanoff.taskmanager.handler.AchievementName;
+import edu.juanoff.taskmanager.handler.PlannerAchievementHandler;
+import edu.juanoff.taskmanager.mapper.UserAchievementMapper;
+import edu.juanoff.taskmanager.repository.UserAchievementBatchRepository;
+import edu.juanoff.taskmanager.repository.UserAchievementBatchRepository.ProgressCorrection;
+import edu.juanoff.taskmanager.repository.UserAchievementRepository;
+import edu.juanoff.taskmanager.util.CacheNames;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserAchievementServiceUnitTest {
+
+    @Mock
+    private UserAchievementRepository userAchievementRepository;
+
+    @Mock
+    private UserAchievementBatchRepository userAchievementBatchRepository;
+
+    @Mock
+    private UserAchievementMapper userAchievementMapper;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private NotificationService notificationService;
+
+    private UserAchievementService userAchievementService;
+    private UserAchievement planner;
+
+    @BeforeEach
+    void setUp() {
+        when(cacheManager.getCache(CacheNames.INCOMPLETE_ACHIEVEMENTS))
+                .thenReturn(new CaffeineCache(CacheNames.INCOMPLETE_ACHIEVEMENTS, Caffeine.newBuilder().build()));
+        userAchievementService = new UserAchievementService(userAchievementRepository, userAchievementBatchRepository,
+                userAchievementMapper, List.of(new PlannerAchievementHandler(new AchievementProgressService())),
+                cacheManager, notificationService);
+        userAchievementService.initAchievementHandlers();
+
+        planner = UserAchievement.builder()
+                .id(7L)
+                .achievement(Achievement.builder().name(AchievementName.PLANNER.getDisplayName()).targetValue(1).build())
+                .progress(0)
+                .completed(false)
+                .build();
+        when(userAchievementRepository.findIncompleteWithAchievementAndUserByUserId(1L))
+                .thenReturn(List.of(planner));
+    }
+
+    @Test
+    void shouldNotifyAboutCompletionAfterProgressIsWritten() {
+        when(userAchievementBatchRepository.updateProgressIfUnchanged(anyList())).thenReturn(Set.of(7L));
+
+        userAchievementService.processAchievementUpdates(1L, List.of(createEvent()));
+
+        InOrder inOrder = inOrder(userAchievementBatchRepository, notificationService);
+        inOrder.verify(userAchievementBatchRepository)
+                .updateProgressIfUnchanged(List.of(new ProgressCorrection(7L, 0, false, 1, true)));
+        inOrder.verify(notificationService).createNotificationForAchievement(planner);
+    }
+
+    @Test
+    void shouldNotNotifyWhenProgressWriteFails() {
+        doThrow(new IllegalStateException("db down")).when(userAchievementBatchRepository)
+                .updateProgressIfUnchanged(anyList());
+
+        assertThrows(IllegalStateException.class,
+                () -> userAchievementService.processAchievementUpdates(1L, List.of(createEvent())));
+
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void shouldSkipNotificationWhenAnotherNodeCompletedFirst() {
+        when(userAchievementBatchRepository.updateProgressIfUnchanged(anyList())).thenReturn(Set.of());
+        when(userAchievementRepository.findIncompleteWithAchievementAndUserByUserId(1L))
+                .thenReturn(List.of(planner), List.of());
+
+        userAchievementService.processAchievementUpdates(1L, List.of(createEvent()));
+
+        verify(userAchievementBatchRepository, times(1)).updateProgressIfUnchanged(anyList());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void shouldReapplyEventsToFreshRowsOnConflict() {
+        UserAchievement fresh = UserAchievement.builder()
+                .id(7L)
+                .achievement(planner.getAchievement())
+                .progress(0)
+                .completed(false)
+                .build();
+        when(userAchievementBatchRepository.updateProgressIfUnchanged(anyList())).thenReturn(Set.of(), Set.of(7L));
+        when(userAchievementRepository.findIncompleteWithAchievementAndUserByUserId(1L))
+                .thenReturn(List.of(planner), List.of(fresh));
+
+        userAchievementService.processAchievementUpdates(1L, List.of(createEvent()));
+
+        verify(userAchievementBatchRepository, times(2))
+                .updateProgressIfUnchanged(List.of(new ProgressCorrection(7L, 0, false, 1, true)));
+        //! сравнение по ссылке: после первой попытки planner равен fresh по equals
+        verify(notificationService).createNotificationForAchievement(argThat(achievement -> achievement == fresh));
+        verify(notificationService, never()).createNotificationForAchievement(argThat(achievement -> achievement == planner));
+        userAchievementService.processAchievementUpdates(1L, List.of(createEvent()));
+        verify(userAchievementRepository, times(3)).findIncompleteWithAchievementAndUserByUserId(1L);
+    }
+
+    private AchievementsUpdatedEvent createEvent() {
+        Task task = Task.builder().dueDate(LocalDateTime.now().plusDays(1)).build();
+        return new AchievementsUpdatedEvent(1L, null, task, AchievementAction.CREATE);
+    }
+}
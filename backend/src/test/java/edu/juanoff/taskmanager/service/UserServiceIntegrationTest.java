@@ -1,6 +1,5 @@
 package edu.juanoff.taskmanager.service;
 
-import edu.juanoff.taskmanager.config.security.SecurityConfig;
 import edu.juanoff.taskmanager.dto.user.UserRequestDTO;
 import edu.juanoff.taskmanager.dto.user.UserResponseDTO;
 import edu.juanoff.taskmanager.entity.User;
@@ -13,14 +12,28 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+//! Профиль test: схема из db.changelog-test.xml и H2 в режиме PostgreSQL из application-test.yml
 @DataJpaTest
-@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
-@Import({UserService.class, UserMapperImpl.class, SecurityConfig.class})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserService.class, UserMapperImpl.class, BCryptPasswordEncoder.class})
 class UserServiceIntegrationTest {
 
+    @MockitoBean
+    private TaskAccessService taskAccessService;
+
+    @MockitoBean
+    private UserSettingsService userSettingsService;
+
+    @MockitoBean
+    private AvatarService avatarService;
+
     @Autowired
     private UserService userService;
 
@@ -82,7 +95,7 @@ class UserServiceIntegrationTest {
         // Act & Assert
         BusinessLogicException exception = assertThrows(BusinessLogicException.class,
                 () -> userService.updateUser(existingUser.getId(), dto));
-        assertEquals("Email already taken", exception.getMessage());
+        assertEquals("Email уже существует", exception.getMessage());
 
         // Verify no changes
         User user = entityManager.find(User.class, existingUser.getId());
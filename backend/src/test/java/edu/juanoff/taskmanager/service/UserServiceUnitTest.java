@@ -5,14 +5,12 @@ import edu.juanoff.taskmanager.dto.user.UserRequestDTO;
 import edu.juanoff.taskmanager.dto.user.UserResponseDTO;
 import edu.juanoff.taskmanager.dto.user.UserSearchDTO;
 import edu.juanoff.taskmanager.dto.user.UserUpdateRequestDTO;
-import edu.juanoff.taskmanager.entity.NotificationSettings;
 import edu.juanoff.taskmanager.entity.User;
 import edu.juanoff.taskmanager.entity.UserSettings;
+import edu.juanoff.taskmanager.event.UserCreatedEvent;
 import edu.juanoff.taskmanager.exception.BusinessLogicException;
-import edu.juanoff.taskmanager.mapper.NotificationSettingsMapper;
 import edu.juanoff.taskmanager.mapper.UserMapper;
 import edu.juanoff.taskmanager.repository.UserRepository;
-import edu.juanoff.taskmanager.repository.UserSettingsRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
@@ -42,10 +41,10 @@ class UserServiceUnitTest {
     private UserMapper userMapper;
 
     @Mock
-    private UserSettingsRepository userSettingsRepository;
+    private UserSettingsService userSettingsService;
 
     @Mock
-    private NotificationSettingsMapper notificationSettingsMapper;
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private UserService userService;
@@ -88,6 +87,7 @@ class UserServiceUnitTest {
         when(userRepository.existsByEmail(userRequestDTO.email())).thenReturn(false);
         when(userMapper.toEntity(userRequestDTO)).thenReturn(user);
         when(passwordEncoder.encode(userRequestDTO.password())).thenReturn("hashedPassword");
+        when(userSettingsService.createDefaultSettings(user)).thenReturn(new UserSettings());
         when(userRepository.save(user)).thenReturn(user);
 
         UserResponseDTO result = userService.createUser(userRequestDTO);
@@ -95,6 +95,7 @@ class UserServiceUnitTest {
         assertNotNull(result);
         verify(userRepository).save(user);
         verify(passwordEncoder).encode(userRequestDTO.password());
+        verify(eventPublisher).publishEvent(any(UserCreatedEvent.class));
     }
 
     @Test
@@ -192,14 +193,11 @@ class UserServiceUnitTest {
 
     @Test
     void shouldUpdateNotificationSettingsSuccessfully() {
-        UserSettings settings = new UserSettings();
-        when(userSettingsRepository.findByUserId(1L)).thenReturn(Optional.of(settings));
-        when(notificationSettingsMapper.toEntity(notificationSettingsDTO)).thenReturn(new NotificationSettings());
-        when(userSettingsRepository.save(settings)).thenReturn(settings);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         userService.updateNotificationSettings(1L, notificationSettingsDTO);
 
-        verify(userSettingsRepository).save(settings);
+        verify(userSettingsService).updateNotificationSettings(user, notificationSettingsDTO);
     }
 
     @Test
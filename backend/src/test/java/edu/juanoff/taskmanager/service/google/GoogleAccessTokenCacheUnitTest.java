@@ -0,0 +1,113 @@
+package edu.juanoff.taskmanager.service.google;
+
+import edu.juanoff.taskmanager.event.GoogleTokenChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleAccessTokenCacheUnitTest {
+
+    private final GoogleAccessTokenCache cache =
+            new GoogleAccessTokenCache(Duration.ofSeconds(60), Duration.ofSeconds(30), 100);
+
+    private Function<Long, GoogleAccessTokenCache.CachedToken> loader(AtomicInteger calls, LocalDateTime expiresAt) {
+        return userId -> GoogleAccessTokenCache.CachedToken.of("token-" + calls.incrementAndGet(), expiresAt);
+    }
+
+    @Test
+    void shouldReuseTokenUntilExpiry() {
+        AtomicInteger calls = new AtomicInteger();
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+
+        assertEquals("token-1", cache.get(1L, loader(calls, expiresAt)));
+        assertEquals("token-1", cache.get(1L, loader(calls, expiresAt)));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldNotKeepTokenExpiringWithinSkew() {
+        AtomicInteger calls = new AtomicInteger();
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(30);
+
+        assertEquals("token-1", cache.get(1L, loader(calls, expiresAt)));
+        assertEquals("token-2", cache.get(1L, loader(calls, expiresAt)));
+    }
+
+    @Test
+    void shouldRefreshAheadOfExpiryBySkew() {
+        assertTrue(cache.needsRefresh(LocalDateTime.now().plusSeconds(30)));
+        assertTrue(cache.needsRefresh(LocalDateTime.now().minusSeconds(1)));
+        assertFalse(cache.needsRefresh(LocalDateTime.now().plusMinutes(5)));
+    }
+
+    @Test
+    void shouldCacheLoadFailure() {
+        AtomicInteger calls = new AtomicInteger();
+        Function<Long, GoogleAccessTokenCache.CachedToken> failing = userId -> {
+            calls.incrementAndGet();
+            throw new GoogleCalendarException("Refresh token missing. Please reconnect Google Calendar.");
+        };
+
+        GoogleCalendarException first = assertThrows(GoogleCalendarException.class, () -> cache.get(1L, failing));
+        GoogleCalendarException second = assertThrows(GoogleCalendarException.class, () -> cache.get(1L, failing));
+
+        assertEquals(first.getMessage(), second.getMessage());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldReloadAfterTokenChanged() {
+        AtomicInteger calls = new AtomicInteger();
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+        cache.get(1L, loader(calls, expiresAt));
+
+        cache.handleTokenChanged(new GoogleTokenChangedEvent(1L));
+
+        assertEquals("token-2", cache.get(1L, loader(calls, expiresAt)));
+    }
+
+    @Test
+    void shouldLoadOnceForConcurrentCallers() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, GoogleAccessTokenCache.CachedToken> slow = userId -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return GoogleAccessTokenCache.CachedToken.of("token-" + calls.incrementAndGet(),
+                    LocalDateTime.now().plusHours(1));
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> cache.get(1L, slow));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> cache.get(1L, slow));
+            Future<String> third = executor.submit(() -> cache.get(1L, slow));
+            release.countDown();
+
+            assertEquals("token-1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("token-1", second.get(5, TimeUnit.SECONDS));
+            assertEquals("token-1", third.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRejectNegativeSkew() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new GoogleAccessTokenCache(Duration.ofSeconds(-1), Duration.ofSeconds(30), 100));
+    }
+}
@@ -0,0 +1,243 @@
+package edu.juanoff.taskmanager.service.google;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.calendar.Calendar;
+import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.repository.TaskSyncBatchRepository;
+import edu.juanoff.taskmanager.repository.TaskSyncBatchRepository.TaskSyncUpdate;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+//! Calendar API подменяется MockWebServer: ответы пакета собираются в multipart/mixed, как у Google.
+//! В теле пакета клиент пишет абсолютные URL, а PATCH отправляет как POST с x-http-method-override
+@ExtendWith(MockitoExtension.class)
+class GoogleCalendarPushEngineUnitTest {
+
+    private static final String BOUNDARY = "batch_test";
+    private static final String HTTP_VERSION = "HTTP/1.1";
+    private static final LocalDateTime SYNC_STARTED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final Pattern CLIENT_EVENT_ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f]{32})\"");
+
+    @Mock
+    private TaskSyncBatchRepository taskSyncBatchRepository;
+
+    @Mock
+    private GoogleCalendarPushEngine.PushListener listener;
+
+    private MockWebServer server;
+    private GoogleCalendarPushEngine pushEngine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        Calendar calendar = new Calendar.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance(), request -> {
+        })
+                .setApplicationName("test")
+                .setRootUrl(server.url("/").toString())
+                .build();
+        pushEngine = new GoogleCalendarPushEngine(new GoogleCalendarApiClient(calendar), taskSyncBatchRepository,
+                50, 1, 3, 0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pushEngine.shutdown();
+        server.shutdown();
+    }
+
+    @Test
+    void shouldInsertNewAndPatchLinkedTasksInOneBatch() throws Exception {
+        server.enqueue(batchResponse(ok("created-1"), ok("linked-2")));
+
+        List<TaskSyncUpdate> synced = pushEngine.pushTasks(
+                List.of(task(1L, null), task(2L, "linked-2")), "token", listener, SYNC_STARTED_AT);
+
+        RecordedRequest request = server.takeRequest();
+        String body = request.getBody().readString(StandardCharsets.UTF_8);
+        assertEquals("/batch/calendar/v3", request.getPath());
+        assertEquals("Bearer token", request.getHeader("Authorization"));
+        assertTrue(body.contains("POST " + events("") + " " + HTTP_VERSION));
+        assertTrue(body.contains("POST " + events("/linked-2") + " " + HTTP_VERSION));
+        assertTrue(body.contains("x-http-method-override: PATCH"));
+        assertTrue(CLIENT_EVENT_ID.matcher(body).find());
+        assertEquals(1, server.getRequestCount());
+        assertTrue(synced.contains(new TaskSyncUpdate(1L, "created-1", "primary", true)));
+        assertTrue(synced.contains(new TaskSyncUpdate(2L, "linked-2", "primary", false)));
+        verify(listener).onBatchCompleted(2, 0);
+    }
+
+    @Test
+    void shouldRecreateEventDeletedInCalendar() throws Exception {
+        server.enqueue(batchResponse(error(404, "Not Found")));
+        server.enqueue(batchResponse(ok("recreated-2")));
+
+        List<TaskSyncUpdate> synced = pushEngine.pushTasks(
+                List.of(task(2L, "deleted-2")), "token", listener, SYNC_STARTED_AT);
+
+        server.takeRequest();
+        String recreate = server.takeRequest().getBody().readString(StandardCharsets.UTF_8);
+        assertTrue(recreate.contains("POST " + events("") + " " + HTTP_VERSION));
+        assertEquals(List.of(new TaskSyncUpdate(2L, "recreated-2", "primary", true)), synced);
+    }
+
+    @Test
+    void shouldRetryOnlyRequestsWithoutFinalResult() throws Exception {
+        server.enqueue(batchResponse(ok("created-1"), error(503, "Backend Error")));
+        server.enqueue(batchResponse(ok("created-2")));
+
+        List<TaskSyncUpdate> synced = pushEngine.pushTasks(
+                List.of(task(1L, null), task(2L, null)), "token", listener, SYNC_STARTED_AT);
+
+        server.takeRequest();
+        String retry = server.takeRequest().getBody().readString(StandardCharsets.UTF_8);
+        assertEquals(1, countOccurrences(retry, "POST " + events("") + " " + HTTP_VERSION));
+        assertEquals(2, synced.size());
+        verify(taskSyncBatchRepository).updateSyncMetadata(any(), eq(SYNC_STARTED_AT));
+    }
+
+    @Test
+    void shouldTreatConflictOnRetriedInsertAsCreated() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(batchResponse(error(409, "The requested identifier already exists.")));
+
+        List<TaskSyncUpdate> synced = pushEngine.pushTasks(
+                List.of(task(1L, null)), "token", listener, SYNC_STARTED_AT);
+
+        String first = server.takeRequest().getBody().readString(StandardCharsets.UTF_8);
+        String second = server.takeRequest().getBody().readString(StandardCharsets.UTF_8);
+        String clientEventId = clientEventId(first);
+        assertEquals(clientEventId, clientEventId(second));
+        assertEquals(List.of(new TaskSyncUpdate(1L, clientEventId, "primary", true)), synced);
+    }
+
+    @Test
+    void shouldKeepSuccessfulRequestsWhenOthersFail() {
+        server.enqueue(batchResponse(ok("created-1"), error(400, "Bad Request")));
+
+        IOException exception = assertThrows(IOException.class,
+                () -> pushEngine.pushTasks(List.of(task(1L, null), task(2L, null)), "token", listener,
+                        SYNC_STARTED_AT));
+
+        assertTrue(exception.getMessage().startsWith("1 of 2"));
+        assertEquals(1, server.getRequestCount());
+        verify(taskSyncBatchRepository).updateSyncMetadata(
+                eq(List.of(new TaskSyncUpdate(1L, "created-1", "primary", true))), eq(SYNC_STARTED_AT));
+        verify(listener).onBatchCompleted(1, 1);
+    }
+
+    @Test
+    void shouldDeleteEventsInOneBatchSkippingMissingOnes() throws Exception {
+        server.enqueue(batchResponse(deleted(), error(404, "Not Found"), error(410, "Gone")));
+
+        pushEngine.deleteEvents(List.of("event-1", "event-2", "event-3"), "token");
+
+        String body = server.takeRequest().getBody().readString(StandardCharsets.UTF_8);
+        assertEquals(3, countOccurrences(body, "DELETE " + events("/")));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void shouldRetryOnlyUnansweredDeletions() throws Exception {
+        server.enqueue(batchResponse(deleted(), error(503, "Backend Error")));
+        server.enqueue(batchResponse(deleted()));
+
+        pushEngine.deleteEvents(List.of("event-1", "event-2"), "token");
+
+        server.takeRequest();
+        String retry = server.takeRequest().getBody().readString(StandardCharsets.UTF_8);
+        assertEquals(1, countOccurrences(retry, "DELETE " + events("/")));
+        assertTrue(retry.contains("events/event-2"));
+    }
+
+    @Test
+    void shouldFailDeletionAfterRetriesAreExhausted() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        assertThrows(IOException.class, () -> pushEngine.deleteEvents(List.of("event-1"), "token"));
+
+        assertEquals(3, server.getRequestCount());
+    }
+
+    private Task task(Long id, String googleEventId) {
+        return Task.builder()
+                .id(id)
+                .title("Task " + id)
+                .dueDate(LocalDateTime.now().plusDays(1))
+                .googleEventId(googleEventId)
+                .build();
+    }
+
+    private MockResponse batchResponse(String... parts) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            body.append("--").append(BOUNDARY).append("\r\n")
+                    .append("Content-Type: application/http\r\n")
+                    .append("Content-ID: <response-").append(i + 1).append(">\r\n\r\n")
+                    .append(parts[i]).append("\r\n");
+        }
+        body.append("--").append(BOUNDARY).append("--\r\n");
+        return new MockResponse()
+                .setHeader("Content-Type", "multipart/mixed; boundary=" + BOUNDARY)
+                .setBody(body.toString());
+    }
+
+    private String ok(String eventId) {
+        return part("200 OK", "{\"id\":\"" + eventId + "\"}");
+    }
+
+    private String deleted() {
+        return "HTTP/1.1 204 No Content\r\nContent-Length: 0\r\n\r\n";
+    }
+
+    private String error(int code, String message) {
+        return part(code + " " + message, "{\"error\":{\"code\":" + code + ",\"message\":\"" + message + "\"}}");
+    }
+
+    private String part(String status, String json) {
+        return "HTTP/1.1 " + status + "\r\n" +
+                "Content-Type: application/json; charset=UTF-8\r\n" +
+                "Content-Length: " + json.getBytes(StandardCharsets.UTF_8).length + "\r\n\r\n" +
+                json;
+    }
+
+    private String clientEventId(String body) {
+        Matcher matcher = CLIENT_EVENT_ID.matcher(body);
+        assertTrue(matcher.find());
+        return matcher.group(1);
+    }
+
+    private String events(String suffix) {
+        return server.url("/calendar/v3/calendars/primary/events" + suffix).toString();
+    }
+
+    private int countOccurrences(String text, String fragment) {
+        int count = 0;
+        for (int from = text.indexOf(fragment); from >= 0; from = text.indexOf(fragment, from + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
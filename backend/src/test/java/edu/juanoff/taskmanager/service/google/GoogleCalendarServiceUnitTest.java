@@ -0,0 +1,116 @@
+package edu.juanoff.taskmanager.service.google;
+
+import edu.juanoff.taskmanager.entity.SyncHistory;
+import edu.juanoff.taskmanager.entity.SyncHistoryItem;
+import edu.juanoff.taskmanager.repository.SyncHistoryItemRepository;
+import edu.juanoff.taskmanager.repository.SyncHistoryRepository;
+import edu.juanoff.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GoogleCalendarServiceUnitTest {
+
+    @Mock
+    private GoogleCalendarPushEngine pushEngine;
+
+    @Mock
+    private GoogleTokenService tokenService;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private SyncHistoryRepository syncHistoryRepository;
+
+    @Mock
+    private SyncHistoryItemRepository syncHistoryItemRepository;
+
+    @InjectMocks
+    private GoogleCalendarService calendarService;
+
+    private SyncHistory history(LocalDateTime syncTime) {
+        return SyncHistory.builder().id(5L).syncTime(syncTime).status("COMPLETED").build();
+    }
+
+    @Test
+    void shouldCaptureSyncStartBeforeSelectingDirtyTasks() throws IOException {
+        GoogleCalendarService.SyncProgress progress = mock(GoogleCalendarService.SyncProgress.class);
+        when(progress.isCancelled()).thenReturn(false, true);
+        when(tokenService.getValidAccessToken(1L)).thenReturn("token");
+        AtomicReference<LocalDateTime> selectedAt = new AtomicReference<>();
+        when(taskRepository.findTasksToPushByUserId(1L)).thenAnswer(invocation -> {
+            selectedAt.set(LocalDateTime.now());
+            return List.of();
+        });
+
+        assertThrows(GoogleCalendarException.class, () -> calendarService.syncTasks(1L, progress));
+
+        ArgumentCaptor<LocalDateTime> syncStartedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(pushEngine).pushTasks(eq(List.of()), eq("token"), eq(progress), syncStartedAt.capture());
+        assertFalse(syncStartedAt.getValue().isAfter(selectedAt.get()));
+    }
+
+    @Test
+    void shouldDeleteCreatedEventsInBatchesAndClearLinksOnce() throws IOException {
+        SyncHistory history = history(LocalDateTime.now().minusMinutes(1));
+        when(syncHistoryRepository.findTopByUserIdAndStatusOrderBySyncTimeDesc(1L, "COMPLETED"))
+                .thenReturn(Optional.of(history));
+        when(tokenService.getValidAccessToken(1L)).thenReturn("token");
+        when(syncHistoryItemRepository.findEventIdsBySyncIdAndOperation(5L, SyncHistoryItem.Operation.CREATED))
+                .thenReturn(List.of("event-1", "event-2"));
+
+        calendarService.undoSync(1L);
+
+        verify(pushEngine).deleteEvents(List.of("event-1", "event-2"), "token");
+        verify(taskRepository).clearSyncMetadataBySyncId(5L, SyncHistoryItem.Operation.CREATED);
+        verify(syncHistoryItemRepository, never())
+                .findEventIdsBySyncIdAndOperation(anyLong(), eq(SyncHistoryItem.Operation.UPDATED));
+        verify(syncHistoryRepository).save(history);
+        assertEquals("CANCELLED", history.getStatus());
+    }
+
+    @Test
+    void shouldKeepHistoryWhenDeletionFails() throws IOException {
+        SyncHistory history = history(LocalDateTime.now().minusMinutes(1));
+        when(syncHistoryRepository.findTopByUserIdAndStatusOrderBySyncTimeDesc(1L, "COMPLETED"))
+                .thenReturn(Optional.of(history));
+        when(tokenService.getValidAccessToken(1L)).thenReturn("token");
+        when(syncHistoryItemRepository.findEventIdsBySyncIdAndOperation(5L, SyncHistoryItem.Operation.CREATED))
+                .thenReturn(List.of("event-1"));
+        doThrow(new IOException("1 of 1 calendar deletions failed")).when(pushEngine).deleteEvents(anyList(), any());
+
+        assertThrows(GoogleCalendarException.class, () -> calendarService.undoSync(1L));
+
+        verify(taskRepository, never()).clearSyncMetadataBySyncId(anyLong(), any());
+        verify(syncHistoryRepository, never()).save(any());
+        assertEquals("COMPLETED", history.getStatus());
+    }
+
+    @Test
+    void shouldRejectUndoOfOldSync() throws IOException {
+        when(syncHistoryRepository.findTopByUserIdAndStatusOrderBySyncTimeDesc(1L, "COMPLETED"))
+                .thenReturn(Optional.of(history(LocalDateTime.now().minusMinutes(10))));
+
+        assertThrows(GoogleCalendarException.class, () -> calendarService.undoSync(1L));
+
+        verify(pushEngine, never()).deleteEvents(anyList(), any());
+        verifyNoInteractions(taskRepository);
+    }
+}
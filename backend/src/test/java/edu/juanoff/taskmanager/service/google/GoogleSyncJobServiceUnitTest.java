@@ -0,0 +1,144 @@
+package edu.juanoff.taskmanager.service.google;
+
+import edu.juanoff.taskmanager.dto.google.GoogleSyncJobDTO;
+import edu.juanoff.taskmanager.dto.google.GoogleSyncJobDTO.Status;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GoogleSyncJobServiceUnitTest {
+
+    @Mock
+    private GoogleCalendarService calendarService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private GoogleSyncJobService syncJobService;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (syncJobService != null) {
+            syncJobService.shutdown();
+        }
+    }
+
+    private GoogleSyncJobService service(int jobThreads, int queueCapacity) {
+        syncJobService = new GoogleSyncJobService(calendarService, messagingTemplate, jobThreads, queueCapacity);
+        return syncJobService;
+    }
+
+    private CountDownLatch blockSyncUntilReleased() {
+        CountDownLatch running = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).when(calendarService).syncTasks(anyLong(), any());
+        return running;
+    }
+
+    private GoogleSyncJobDTO awaitFinished(Status status) {
+        verify(messagingTemplate, timeout(5000)).convertAndSendToUser(eq("alice"), eq("/topic/google-sync"),
+                argThat(dto -> dto instanceof GoogleSyncJobDTO job && job.status() == status));
+        return syncJobService.getJob(1L);
+    }
+
+    @Test
+    void shouldRunJobAndReportProgress() {
+        doAnswer(invocation -> {
+            GoogleCalendarService.SyncProgress progress = invocation.getArgument(1);
+            progress.onBatchCompleted(3, 1);
+            progress.onPulled(2);
+            return null;
+        }).when(calendarService).syncTasks(eq(1L), any());
+
+        GoogleSyncJobDTO queued = service(1, 10).startSync(1L, "alice");
+        GoogleSyncJobDTO finished = awaitFinished(Status.COMPLETED);
+
+        assertEquals(queued.jobId(), finished.jobId());
+        assertEquals(3, finished.pushed());
+        assertEquals(2, finished.pulled());
+        assertEquals(1, finished.failed());
+        assertNotNull(finished.finishedAt());
+    }
+
+    @Test
+    void shouldReturnActiveJobInsteadOfStartingAnother() {
+        blockSyncUntilReleased();
+        GoogleSyncJobService service = service(2, 10);
+
+        GoogleSyncJobDTO first = service.startSync(1L, "alice");
+        GoogleSyncJobDTO second = service.startSync(1L, "alice");
+        release.countDown();
+        awaitFinished(Status.COMPLETED);
+
+        assertEquals(first.jobId(), second.jobId());
+        verify(calendarService, times(1)).syncTasks(eq(1L), any());
+    }
+
+    @Test
+    void shouldCancelRunningJob() {
+        CountDownLatch running = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            GoogleCalendarService.SyncProgress progress = invocation.getArgument(1);
+            running.countDown();
+            while (!progress.isCancelled()) {
+                Thread.sleep(10);
+            }
+            throw new GoogleCalendarException("Sync cancelled by user");
+        }).when(calendarService).syncTasks(eq(1L), any());
+        GoogleSyncJobService service = service(1, 10);
+
+        service.startSync(1L, "alice");
+        assertDoesNotThrow(() -> assertTrue(running.await(5, TimeUnit.SECONDS)));
+        service.cancelSync(1L);
+
+        GoogleSyncJobDTO finished = awaitFinished(Status.CANCELLED);
+        assertNull(finished.error());
+    }
+
+    @Test
+    void shouldReportFailure() {
+        doThrow(new GoogleCalendarException("Failed to authenticate with Google Calendar"))
+                .when(calendarService).syncTasks(eq(1L), any());
+
+        service(1, 10).startSync(1L, "alice");
+
+        GoogleSyncJobDTO finished = awaitFinished(Status.FAILED);
+        assertEquals("Failed to authenticate with Google Calendar", finished.error());
+    }
+
+    @Test
+    void shouldRejectCancelWithoutActiveJob() {
+        GoogleSyncJobService service = service(1, 10);
+
+        assertThrows(EntityNotFoundException.class, () -> service.cancelSync(1L));
+        assertThrows(EntityNotFoundException.class, () -> service.getJob(1L));
+    }
+
+    @Test
+    void shouldRejectAndForgetJobWhenQueueIsFull() {
+        CountDownLatch running = blockSyncUntilReleased();
+        GoogleSyncJobService service = service(1, 1);
+        service.startSync(1L, "alice");
+        assertDoesNotThrow(() -> assertTrue(running.await(5, TimeUnit.SECONDS)));
+        service.startSync(2L, "bob");
+
+        assertThrows(GoogleCalendarException.class, () -> service.startSync(3L, "carol"));
+        assertThrows(EntityNotFoundException.class, () -> service.getJob(3L));
+    }
+}
@@ -0,0 +1,105 @@
+package edu.juanoff.taskmanager.service.search;
+
+import edu.juanoff.taskmanager.entity.Task;
+import edu.juanoff.taskmanager.filter.TaskSearchRequestDTO;
+import edu.juanoff.taskmanager.filter.TaskSpecificationBuilder;
+import edu.juanoff.taskmanager.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryTaskSearchEngineUnitTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskSpecificationBuilder specBuilder;
+
+    @InjectMocks
+    private InMemoryTaskSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        searchEngine.index(task(1L, "Подготовить отчет", "квартальный отчет для клиента"));
+        searchEngine.index(task(2L, "Позвонить клиенту", "обсудить отчет"));
+        searchEngine.index(task(3L, "Купить продукты", null));
+    }
+
+    @Test
+    void shouldRankTitleMatchesAboveDescriptionMatches() {
+        List<Long> result = searchEngine.rankTaskIds("отчет", null, 0, 10);
+
+        assertEquals(List.of(1L, 2L), result);
+    }
+
+    @Test
+    void shouldMatchByPrefixAndRequireAllWords() {
+        assertEquals(List.of(2L), searchEngine.rankTaskIds("позв клиент", null, 0, 10));
+        assertTrue(searchEngine.rankTaskIds("купить отчет", null, 0, 10).isEmpty());
+    }
+
+    @Test
+    void shouldRespectLimit() {
+        assertEquals(List.of(1L), searchEngine.rankTaskIds("отч", null, 0, 1));
+    }
+
+    @Test
+    void shouldPageWithinCandidates() {
+        searchEngine.index(task(5L, "Отчет по продажам", null));
+
+        assertEquals(List.of(5L), searchEngine.rankTaskIds("отчет", Set.of(2L, 5L), 0, 1));
+        assertEquals(List.of(2L), searchEngine.rankTaskIds("отчет", Set.of(2L, 5L), 1, 1));
+        assertTrue(searchEngine.rankTaskIds("отчет", Set.of(2L, 5L), 2, 1).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRankOnlyTasksVisibleToUser() {
+        TaskSearchRequestDTO request = new TaskSearchRequestDTO("отчет", null, null, null, null, null);
+        Specification<Task> spec = (root, q, cb) -> cb.conjunction();
+        when(specBuilder.build(7L, request)).thenReturn(spec);
+        when(taskRepository.findAll(any(Specification.class))).thenReturn(List.of(task(2L, "Позвонить клиенту", null)));
+
+        assertEquals(List.of(2L), searchEngine.findRankedTaskIds(7L, request, 0, 10));
+    }
+
+    @Test
+    void shouldForgetRemovedAndReindexedTasks() {
+        searchEngine.remove(1L);
+        searchEngine.index(task(2L, "Позвонить маме", null));
+
+        assertTrue(searchEngine.rankTaskIds("отчет", null, 0, 10).isEmpty());
+        assertEquals(List.of(2L), searchEngine.rankTaskIds("мам", null, 0, 10));
+    }
+
+    @Test
+    void shouldNotIndexSubtasks() {
+        Task subtask = task(4L, "Отчет по подзадаче", null);
+        subtask.setParentTask(task(1L, "Подготовить отчет", null));
+        searchEngine.index(subtask);
+
+        assertEquals(List.of(1L, 2L), searchEngine.rankTaskIds("отчет", null, 0, 10));
+    }
+
+    private static Task task(Long id, String title, String description) {
+        return Task.builder()
+                .id(id)
+                .title(title)
+                .description(description)
+                .build();
+    }
+}
@@ -2,14 +2,32 @@
 
 import SettingsModal from "@/components/SettingsModal";
 import { useSearchParams } from "next/navigation";
-import { useEffect, useState } from "react";
+import { useCallback, useEffect, useRef, useState } from "react";
 import Image from "next/image";
 import { useShowToast } from "@/hooks/useShowToast";
+import { isSyncActive, SyncJob, SyncStatus } from "@/types/googleSync";
+import { subscribeToSyncJobs } from "@/services/websocketService";
+
+// Синхронизация выполняется на сервере асинхронно: прогресс приходит в /user/topic/google-sync,
+// GET /api/google/sync нужен только для восстановления состояния при загрузке страницы.
+// 404 означает, что пользователь еще не запускал синхронизацию
+const fetchSyncJob = async (): Promise<SyncJob | null> => {
+	try {
+		const res = await fetch(`${process.env.NEXT_PUBLIC_API_URL}/api/google/sync`, {
+			credentials: "include",
+		});
+		return res.ok ? await res.json() : null;
+	} catch {
+		return null;
+	}
+};
 
 export default function SettingsPage() {
 	const [isConnected, setIsConnected] = useState(false);
 	const [email, setEmail] = useState("");
 	const [isSyncing, setIsSyncing] = useState(false);
+	const [syncJob, setSyncJob] = useState<SyncJob | null>(null);
+	const finishedJobId = useRef<string | null>(null);
 	const [showConfirmSync, setShowConfirmSync] = useState(false);
 	const [showConfirmDisconnect, setShowConfirmDisconnect] = useState(false);
 	const [lastSync, setLastSync] = useState<Date | null>(null);
@@ -27,12 +45,30 @@ export default function SettingsPage() {
 					const { isConnected, email } = await res.json();
 					setIsConnected(isConnected);
 					setEmail(email || "");
+					if (isConnected) {
+						restoreSyncJob();
+					}
 				}
 			} catch (error) {
 				console.error(error);
 			}
 		};
 
+		// Задача могла быть запущена до перезагрузки страницы
+		const restoreSyncJob = async () => {
+			const job = await fetchSyncJob();
+			if (!job) return;
+			setSyncJob(job);
+			if (isSyncActive(job)) {
+				setIsSyncing(true);
+			} else {
+				finishedJobId.current = job.jobId;
+				if (job.status === SyncStatus.COMPLETED && job.finishedAt) {
+					setLastSync(new Date(job.finishedAt));
+				}
+			}
+		};
+
 		checkConnection();
 
 		const status = searchParams.get("status");
@@ -61,6 +97,47 @@ export default function SettingsPage() {
 		}
 	};
 
+	const handleSyncFinished = useCallback((job: SyncJob) => {
+		if (finishedJobId.current === job.jobId) return;
+		finishedJobId.current = job.jobId;
+		setIsSyncing(false);
+
+		switch (job.status) {
+			case SyncStatus.COMPLETED:
+				setLastSync(job.finishedAt ? new Date(job.finishedAt) : new Date());
+				if (job.failed > 0) {
+					showToast("error", `Синхронизация завершена, ошибок: ${job.failed}`);
+				} else {
+					showToast("success", "Календарь успешно синхронизирован");
+				}
+				break;
+			case SyncStatus.CANCELLED:
+				showToast("success", "Синхронизация отклонена");
+				break;
+			case SyncStatus.FAILED:
+				if (job.error?.includes("Please reconnect Google Calendar")) {
+					showToast("error", "Пожалуйста, переподключитесь к Google Calendar");
+					setIsConnected(false);
+				} else {
+					showToast("error", job.error || "Ошибка синхронизации");
+				}
+				break;
+		}
+	}, [showToast]);
+
+	useEffect(() => {
+		return subscribeToSyncJobs((job) => {
+			// Запоздавший прогресс уже завершенной задачи не должен снова включать индикатор
+			if (finishedJobId.current === job.jobId) return;
+			setSyncJob(job);
+			if (isSyncActive(job)) {
+				setIsSyncing(true);
+			} else {
+				handleSyncFinished(job);
+			}
+		});
+	}, [handleSyncFinished]);
+
 	const handleSync = async () => {
 		setShowConfirmSync(true);
 	};
@@ -75,9 +152,14 @@ export default function SettingsPage() {
 			});
 
 			if (res.ok) {
-				showToast("success", "Календарь успешно синхронизирован");
-				setLastSync(new Date());
+				// 202: задача поставлена в очередь (или уже выполняется), итог придет по WebSocket
+				const job: SyncJob = await res.json();
+				setSyncJob(job);
+				if (!isSyncActive(job)) {
+					handleSyncFinished(job);
+				}
 			} else {
+				setIsSyncing(false);
 				const error = await res.text();
 				if (error.includes("Please reconnect Google Calendar")) {
 					showToast("error", "Пожалуйста, переподключитесь к Google Calendar");
@@ -87,9 +169,8 @@ export default function SettingsPage() {
 				}
 			}
 		} catch {
-			showToast("error", "Ошибка синхронизации");
-		} finally {
 			setIsSyncing(false);
+			showToast("error", "Ошибка синхронизации");
 		}
 	};
 
@@ -101,14 +182,20 @@ export default function SettingsPage() {
 			});
 
 			if (res.ok) {
-				showToast("success", "Синхронизация отклонена");
+				// Отмена срабатывает между пакетами, итоговый статус CANCELLED придет по WebSocket
+				const job: SyncJob = await res.json();
+				setSyncJob(job);
+				if (!isSyncActive(job)) {
+					handleSyncFinished(job);
+				}
+			} else if (res.status === 404) {
+				// Активной задачи уже нет: синхронизация успела завершиться, ее итог приходит по WebSocket
+				setIsSyncing(false);
 			} else {
 				showToast("error", "Ошибка прерывания синхронизации");
 			}
 		} catch {
 			showToast("error", "Ошибка прерывания синхронизации");
-		} finally {
-			setIsSyncing(false);
 		}
 	};
 
@@ -147,6 +234,7 @@ export default function SettingsPage() {
 				setIsConnected(false);
 				setEmail("");
 				setLastSync(null);
+				setSyncJob(null);
 			} else {
 				showToast("error", "Ошибка отключения");
 			}
@@ -215,6 +303,17 @@ export default function SettingsPage() {
 								Выйти из аккаунта
 							</button>
 						</div>
+						{syncJob && (
+							<p className="text-sm text-gray-600">
+								{isSyncActive(syncJob)
+									? syncJob.status === SyncStatus.QUEUED
+										? "Синхронизация в очереди..."
+										: "Синхронизация выполняется: "
+									: "Последняя синхронизация: "}
+								{syncJob.status !== SyncStatus.QUEUED &&
+									`выгружено ${syncJob.pushed}, загружено ${syncJob.pulled}, ошибок ${syncJob.failed}`}
+							</p>
+						)}
 					</div>
 				) : (
 					<button
@@ -5,11 +5,13 @@ import { useTaskStore } from '@/stores/taskStore';
 import { Type } from '@/stores/notificationStore';
 import type { Notification } from '../stores/notificationStore';
 import { Task } from '@/types/task';
+import { SyncJob } from '@/types/googleSync';
 
 let stompClient: Client | null = null;
 let isConnected = false;
 let pendingTaskIds: number[] = [];
 const subscriptions: Map<number, StompSubscription> = new Map();
+const syncJobListeners: Set<(job: SyncJob) => void> = new Set();
 
 export const initializeWebSocket = (userId: number) => {
 	if (!userId || userId === 0 || stompClient) {
@@ -56,6 +58,15 @@ export const initializeWebSocket = (userId: number) => {
 			}
 		});
 
+		stompClient!.subscribe(`/user/topic/google-sync`, (message) => {
+			try {
+				const job: SyncJob = JSON.parse(message.body);
+				syncJobListeners.forEach((listener) => listener(job));
+			} catch (e) {
+				console.error('Error parsing sync job JSON: ', e, 'Message:', message.body);
+			}
+		});
+
 		// Подписываемся на отложенные taskIds после подключения
 		if (pendingTaskIds.length > 0) {
 			updateSubscriptions(pendingTaskIds);
@@ -182,6 +193,14 @@ export const updateSubscriptions = (taskIds: number[]) => {
 	});
 };
 
+// Канал /user/topic/google-sync подписывается при подключении, поэтому слушатели переживают переподключения
+export const subscribeToSyncJobs = (listener: (job: SyncJob) => void) => {
+	syncJobListeners.add(listener);
+	return () => {
+		syncJobListeners.delete(listener);
+	};
+};
+
 export const disconnectWebSocket = () => {
 	if (stompClient) {
 		stompClient.deactivate().then(() => {
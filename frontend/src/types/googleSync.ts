@@ -0,0 +1,21 @@
+export enum SyncStatus {
+	QUEUED = "QUEUED",
+	RUNNING = "RUNNING",
+	COMPLETED = "COMPLETED",
+	FAILED = "FAILED",
+	CANCELLED = "CANCELLED"
+}
+
+export interface SyncJob {
+	jobId: string;
+	status: SyncStatus;
+	pushed: number;
+	pulled: number;
+	failed: number;
+	error?: string | null;
+	startedAt: string;
+	finishedAt?: string | null;
+}
+
+export const isSyncActive = (job: SyncJob | null) =>
+	job !== null && (job.status === SyncStatus.QUEUED || job.status === SyncStatus.RUNNING);